@@ -0,0 +1,187 @@
+package com.micr.example.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the {@code /books} API at constant arrival rates (an open model): request {@code i} of a
+ * step is due at {@code start + i / rate} whether or not earlier ones have completed, and is sent
+ * with the non-blocking JDK {@link HttpClient}.
+ * <p>
+ * Latency is recorded from the due time rather than the send time. When the server or this
+ * generator stalls, the requests that should have gone out meanwhile are charged the wait, which
+ * corrects the coordinated omission of closed-loop load tests. The percentiles cover every request
+ * scheduled: a failed request is recorded at its latency, and one dropped because
+ * {@link LoadOptions#maxInFlight()} requests were outstanding at the time from its due time to the
+ * end of the step, since it was never answered within it.
+ */
+public class LoadGenerator {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String NEW_BOOK = "{\"title\":\"Load Test\",\"author\":\"Generator\"}";
+    private static final int SEED_BATCH = 500;
+
+    private final URI books;
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private long[] seeded;
+
+    public LoadGenerator(URI baseUri, LoadOptions options) {
+        this.books = baseUri.resolve("/books");
+        this.options = options;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<Operation, Integer> mix = options.mix();
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Seeds the catalog, then runs every rate of {@link LoadOptions#rates()} in turn.
+     */
+    public List<StepResult> run() throws IOException, InterruptedException {
+        seeded = seed();
+        List<StepResult> results = new ArrayList<>();
+        for (int rate : options.rates()) {
+            step(rate, options.warmup());
+            StepResult result = step(rate, options.duration());
+            results.add(result);
+            System.out.printf("%6d req/s: achieved %.0f, p99 %d us, errors %d, dropped %d%n", rate,
+                    result.achievedRate(), result.p99(), result.errors(), result.dropped());
+        }
+        client.close();
+        return results;
+    }
+
+    private long[] seed() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(options.seed());
+        while (ids.size() < options.seed()) {
+            int count = Math.min(SEED_BATCH, options.seed() - ids.size());
+            String body = String.join(",", Collections.nCopies(count, NEW_BOOK));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(books.resolve("/books/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("[" + body + "]"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IOException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+            Matcher matcher = ID.matcher(response.body());
+            while (matcher.find()) {
+                ids.add(Long.valueOf(matcher.group(1)));
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private StepResult step(int rate, Duration duration) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        // due times of the dropped requests; only this thread drops
+        long[] dropped = new long[64];
+        int droppedCount = 0;
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long due = start; due < end; due += interval) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                if (droppedCount == dropped.length) {
+                    dropped = Arrays.copyOf(dropped, droppedCount * 2);
+                }
+                dropped[droppedCount++] = due;
+                continue;
+            }
+            long dueAt = due;
+            Operation picked = pick();
+            Long deleteId = picked == Operation.DELETE ? created.poll() : null;
+            // nothing created yet to delete: send a GET, and treat it as one
+            Operation operation = picked == Operation.DELETE && deleteId == null ? Operation.GET : picked;
+            client.sendAsync(request(operation, deleteId), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - dueAt;
+                        inFlight.release();
+                        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors.increment();
+                            return;
+                        }
+                        completed.increment();
+                        if (operation == Operation.CREATE) {
+                            Matcher matcher = ID.matcher(response.body());
+                            if (matcher.find()) {
+                                created.add(Long.valueOf(matcher.group(1)));
+                            }
+                        }
+                    });
+        }
+        // let the tail complete so slow responses are part of this step, not the next one
+        inFlight.tryAcquire(options.maxInFlight(), 30, TimeUnit.SECONDS);
+        long drained = System.nanoTime();
+        for (int i = 0; i < droppedCount; i++) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(drained - dropped[i]));
+        }
+        double seconds = duration.toNanos() / 1e9;
+        return new StepResult(rate, completed.sum() / seconds,
+                latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99),
+                latencies.getValueAtPercentile(99.9), latencies.getMaxValue(),
+                completed.sum(), errors.sum(), droppedCount);
+    }
+
+    private Operation pick() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (r >= cumulativeWeights[i]) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    private HttpRequest request(Operation operation, Long deleteId) {
+        return switch (operation) {
+            case LIST -> HttpRequest.newBuilder(books).GET().build();
+            case GET -> HttpRequest.newBuilder(books.resolve("/books/" + randomSeeded())).GET().build();
+            case CREATE -> HttpRequest.newBuilder(books)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(NEW_BOOK))
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(books.resolve("/books/" + deleteId)).DELETE().build();
+        };
+    }
+
+    private long randomSeeded() {
+        return seeded[ThreadLocalRandom.current().nextInt(seeded.length)];
+    }
+}
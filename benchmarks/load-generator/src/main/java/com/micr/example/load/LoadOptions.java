@@ -0,0 +1,63 @@
+package com.micr.example.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of a load test, parsed from {@code key=value} program arguments:
+ * <ul>
+ *     <li>{@code rates}: arrival rates to step through, in requests per second</li>
+ *     <li>{@code warmup}, {@code duration}: ISO-8601 durations of the unrecorded and recorded part of each step</li>
+ *     <li>{@code slo}: p99 a step must stay under to count as sustained</li>
+ *     <li>{@code seed}: books created before the run, read by {@link Operation#GET}</li>
+ *     <li>{@code max-in-flight}: requests in flight before new arrivals are dropped</li>
+ *     <li>{@code mix}: weights per operation, e.g. {@code list:10,get:60,create:15,delete:15}</li>
+ *     <li>{@code out}: JSON report file</li>
+ * </ul>
+ */
+public record LoadOptions(List<Integer> rates, Duration warmup, Duration duration, Duration slo,
+                          int seed, int maxInFlight, Map<Operation, Integer> mix, Path out) {
+
+    public static LoadOptions parse(String... args) {
+        List<Integer> rates = List.of(100, 200, 400, 800, 1600);
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        Duration slo = Duration.ofMillis(100);
+        int seed = 200;
+        int maxInFlight = 512;
+        Map<Operation, Integer> mix = parseMix("list:10,get:60,create:15,delete:15");
+        Path out = Path.of("target", "load-result.json");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(0, eq)) {
+                case "rates" -> rates = Arrays.stream(value.split(",")).map(String::trim).map(Integer::valueOf).toList();
+                case "warmup" -> warmup = Duration.parse(value);
+                case "duration" -> duration = Duration.parse(value);
+                case "slo" -> slo = Duration.parse(value);
+                case "seed" -> seed = Integer.parseInt(value);
+                case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "mix" -> mix = parseMix(value);
+                case "out" -> out = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        return new LoadOptions(rates, warmup, duration, slo, seed, maxInFlight, mix, out);
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.valueOf(parts[1].trim()));
+        }
+        return mix;
+    }
+}
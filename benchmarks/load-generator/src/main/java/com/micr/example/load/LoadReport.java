@@ -0,0 +1,60 @@
+package com.micr.example.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Latency percentiles per step and the highest rate the stack sustained within the SLO.
+ */
+public record LoadReport(String stack, LoadOptions options, List<StepResult> steps) {
+
+    /**
+     * Achieved rate of the fastest sustained step, or 0 if even the first step missed the SLO.
+     */
+    public double maxSustainedRate() {
+        long slo = options.slo().toNanos() / 1_000;
+        return steps.stream()
+                .filter(step -> step.sustained(slo))
+                .mapToDouble(StepResult::achievedRate)
+                .max()
+                .orElse(0);
+    }
+
+    public void print(PrintStream out) {
+        long slo = options.slo().toNanos() / 1_000;
+        out.printf("%n%s, mix %s, %s per step%n", stack, options.mix(), options.duration());
+        out.printf("%8s %10s %10s %10s %10s %10s %8s %8s %s%n",
+                "target", "achieved", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "dropped", "");
+        for (StepResult step : steps) {
+            out.printf(Locale.ROOT, "%8d %10.1f %10.2f %10.2f %10.2f %10.2f %8d %8d %s%n",
+                    step.targetRate(), step.achievedRate(), step.p50() / 1e3, step.p99() / 1e3,
+                    step.p999() / 1e3, step.max() / 1e3, step.errors(), step.dropped(),
+                    step.sustained(slo) ? "" : "over SLO");
+        }
+        out.printf(Locale.ROOT, "max sustained: %.1f req/s (p99 <= %d ms)%n", maxSustainedRate(), slo / 1_000);
+    }
+
+    public void write(Path file) throws IOException {
+        long slo = options.slo().toNanos() / 1_000;
+        String rows = steps.stream()
+                .map(step -> String.format(Locale.ROOT,
+                        "{\"targetRate\":%d,\"achievedRate\":%.1f,\"p50Micros\":%d,\"p99Micros\":%d,"
+                                + "\"p999Micros\":%d,\"maxMicros\":%d,\"completed\":%d,\"errors\":%d,"
+                                + "\"dropped\":%d,\"sustained\":%b}",
+                        step.targetRate(), step.achievedRate(), step.p50(), step.p99(), step.p999(),
+                        step.max(), step.completed(), step.errors(), step.dropped(), step.sustained(slo)))
+                .collect(Collectors.joining(",\n    ", "[\n    ", "\n  ]"));
+        String json = String.format(Locale.ROOT,
+                "{%n  \"stack\": \"%s\",%n  \"sloMicros\": %d,%n  \"maxSustainedRate\": %.1f,%n  \"steps\": %s%n}%n",
+                stack, slo, maxSustainedRate(), rows);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, json);
+    }
+}
@@ -0,0 +1,15 @@
+package com.micr.example.load;
+
+/**
+ * Requests the generator sends, picked at random according to {@link LoadOptions#mix()}.
+ */
+public enum Operation {
+    /** {@code GET /books} */
+    LIST,
+    /** {@code GET /books/{id}} of a seeded book */
+    GET,
+    /** {@code POST /books} */
+    CREATE,
+    /** {@code DELETE /books/{id}} of a book created during the run; a {@link #GET} when there is none */
+    DELETE
+}
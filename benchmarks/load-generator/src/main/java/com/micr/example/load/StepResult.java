@@ -0,0 +1,19 @@
+package com.micr.example.load;
+
+/**
+ * Outcome of one arrival rate. Latencies are in microseconds and measured from the time each
+ * request was due to be sent, so a stalled server or client shows up in the percentiles. They cover
+ * every scheduled request, failed and dropped ones included; {@code completed} counts the
+ * successful ones only.
+ */
+public record StepResult(int targetRate, double achievedRate, long p50, long p99, long p999, long max,
+                         long completed, long errors, long dropped) {
+
+    /**
+     * Whether the server kept up: at least 95% of the target rate, no failed or dropped requests,
+     * and a p99 within {@code sloMicros}.
+     */
+    public boolean sustained(long sloMicros) {
+        return achievedRate >= targetRate * 0.95 && errors == 0 && dropped == 0 && p99 <= sloMicros;
+    }
+}
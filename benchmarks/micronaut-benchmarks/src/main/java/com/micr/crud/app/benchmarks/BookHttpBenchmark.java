@@ -0,0 +1,99 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.crud.app.service.BookService;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips through {@code BookController} on a local port. The client is the JDK
+ * {@link HttpClient} in both stacks, so only the server side differs. {@code persistence} selects
+ * the Hibernate or the plain JDBC repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookHttpBenchmark {
+
+    private static final String NEW_BOOK = "{\"title\":\"Effective Java\",\"author\":\"Joshua Bloch\"}";
+
+    @Param({"jpa", "jdbc"})
+    private String persistence;
+
+    private EmbeddedServer server;
+    private BookService service;
+    private HttpClient client;
+    private URI books;
+    private long[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        server = ApplicationContext.run(EmbeddedServer.class, Map.of(
+                "micronaut.server.port", -1,
+                "books.persistence", persistence));
+        service = server.getApplicationContext().getBean(BookService.class);
+        ids = BookData.seed(service);
+        books = URI.create("http://localhost:" + server.getPort() + "/books");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        BookData.purgeAfter(service, ids[ids.length - 1]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String getById() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(books.resolve("/books/" + ids[next++ % ids.length])).GET());
+    }
+
+    @Benchmark
+    public String getPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(books.resolve("/books?limit=" + BookData.PAGE_SIZE)).GET());
+    }
+
+    @Benchmark
+    public String create() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(books)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(NEW_BOOK)));
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
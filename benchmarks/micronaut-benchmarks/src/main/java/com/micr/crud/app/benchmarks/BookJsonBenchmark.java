@@ -0,0 +1,67 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.entity.Book;
+import io.micronaut.serde.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micronaut Serde (de)serialization of {@link Book}, using the compile-time generated serdes the
+ * controller uses. Same cases as the Jackson benchmark of the same name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookJsonBenchmark {
+
+    private ObjectMapper mapper;
+    private Book book;
+    private BookPage page;
+    private byte[] requestBody;
+
+    @Setup
+    public void setUp() {
+        mapper = ObjectMapper.getDefault();
+        book = new Book(42L, "Effective Java", "Joshua Bloch");
+        List<Book> items = new ArrayList<>(BookData.PAGE_SIZE);
+        for (long id = 1; id <= BookData.PAGE_SIZE; id++) {
+            items.add(new Book(id, "Title " + id, "Author " + id));
+        }
+        page = new BookPage(items, BookCursor.encode((long) BookData.PAGE_SIZE));
+        requestBody = "{\"title\":\"Effective Java\",\"author\":\"Joshua Bloch\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeBook() throws IOException {
+        return mapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book readBook() throws IOException {
+        return mapper.readValue(requestBody, Book.class);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,77 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.crud.app.service.BookService;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /books?limit=100} round trips, with Netty's compression and with the pre-serialized
+ * {@code BookListingCache} ({@code listingCacheSize > 0}). {@code acceptEncoding=gzip} asks for a
+ * compressed body, which the client reads as bytes without inflating it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookListingBenchmark {
+
+    @Param({"0", "1000"})
+    private int listingCacheSize;
+
+    @Param({"identity", "gzip"})
+    private String acceptEncoding;
+
+    private EmbeddedServer server;
+    private HttpClient client;
+    private HttpRequest page;
+
+    @Setup
+    public void setUp() {
+        server = ApplicationContext.run(EmbeddedServer.class, Map.of(
+                "micronaut.server.port", -1,
+                "books.listing-cache-size", listingCacheSize));
+        BookData.seed(server.getApplicationContext().getBean(BookService.class));
+        page = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/books?limit=100"))
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public byte[] getPage() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(page, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Status " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,28 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.example.load.LoadGenerator;
+import com.micr.example.load.LoadOptions;
+import com.micr.example.load.LoadReport;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Boots the Micronaut app on a random port and runs the {@link LoadGenerator} against it.
+ * Arguments are {@link LoadOptions}.
+ */
+public class BookLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        try (EmbeddedServer server = ApplicationContext.run(EmbeddedServer.class,
+                Map.of("micronaut.server.port", -1))) {
+            LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + server.getPort()), options);
+            LoadReport report = new LoadReport("micronaut-crud-app", options, generator.run());
+            report.print(System.out);
+            report.write(options.out());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.service.BookService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The author and title finders of {@link BookService} on a table of {@link #ROWS} books, with the
+ * {@code idx_books_author} and {@code idx_books_title} indexes ({@code indexed=true}) and after
+ * dropping them ({@code indexed=false}), so each lookup falls back to a full table scan. The H2
+ * query plans of both cases are printed during setup.
+ * <p>
+ * Rows are inserted with one {@code INSERT ... SELECT}, bypassing the service; every author has
+ * {@code ROWS / AUTHORS} books and every title prefix looked up matches ten.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookQueryBenchmark {
+    static final int ROWS = 1_000_000;
+    static final int AUTHORS = 10_000;
+    // a step coprime to the number of authors and rows, so consecutive calls hit unrelated keys
+    private static final int STEP = 7_919;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ApplicationContext context;
+    private BookService service;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = ApplicationContext.run();
+        service = context.getBean(BookService.class);
+        DataSource dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO books (id, title, author, version) "
+                    + "SELECT X, 'Title ' || LPAD(X, 7, '0'), 'Author ' || MOD(X, " + AUTHORS + "), 0 FROM SYSTEM_RANGE(1, " + ROWS + ")");
+            statement.execute("ALTER SEQUENCE books_seq RESTART WITH " + (ROWS + 1));
+            if (!indexed) {
+                statement.execute("DROP INDEX idx_books_author");
+                statement.execute("DROP INDEX idx_books_title");
+            }
+            statement.execute("ANALYZE");
+            explain(statement, "SELECT * FROM books WHERE author = 'Author 42' AND id > 0 ORDER BY id LIMIT 21");
+            explain(statement, "SELECT * FROM books WHERE title LIKE 'Title 004242%' ORDER BY title, id LIMIT 20");
+            explain(statement, "SELECT COUNT(*) FROM books WHERE author = 'Author 42'");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookPage findByAuthor() {
+        return service.findByAuthor("Author " + nextKey(AUTHORS), 0L, BookData.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookPage findByTitlePrefix() {
+        // titles are zero-padded to seven digits, so six of them match ten books
+        return service.findByTitlePrefix(String.format("Title %06d", nextKey(ROWS / 10)), null, BookData.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long countByAuthor() {
+        return service.countByAuthor("Author " + nextKey(AUTHORS));
+    }
+
+    private int nextKey(int bound) {
+        next += STEP;
+        return Math.floorMod(next, bound);
+    }
+
+    private void explain(Statement statement, String sql) throws SQLException {
+        try (ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            plan.next();
+            System.out.println("indexed=" + indexed + ": " + plan.getString(1).replaceAll("\\s+", " "));
+        }
+    }
+}
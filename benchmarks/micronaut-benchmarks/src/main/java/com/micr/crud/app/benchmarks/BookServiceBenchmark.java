@@ -0,0 +1,96 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.service.BookService;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookService} against the in-memory H2 database, without the HTTP server.
+ * {@code saveAll} and {@code saveEach} insert the same number of rows, as one JDBC batch and as
+ * single-row transactions. {@code persistence} selects the Hibernate or the plain JDBC repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Param({"jpa", "jdbc"})
+    private String persistence;
+
+    private ApplicationContext context;
+    private BookService service;
+    private long[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = ApplicationContext.run(Map.of("books.persistence", persistence));
+        service = context.getBean(BookService.class);
+        ids = BookData.seed(service);
+        for (long id : ids) {
+            service.findById(id);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        BookData.purgeAfter(service, ids[ids.length - 1]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Book> findById() {
+        // the seeded ids were loaded in setUp, so every lookup is a cache hit
+        return service.findById(ids[next++ % ids.length]);
+    }
+
+    @Benchmark
+    public BookPage findPage() {
+        return service.findPage(ids[next++ % (ids.length - BookData.PAGE_SIZE)], BookData.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Book save() {
+        return service.save(new Book("Title", "Author"));
+    }
+
+    @Benchmark
+    public List<Book> saveAll() {
+        return service.saveAll(BookData.newBooks(BookData.BATCH_SIZE));
+    }
+
+    @Benchmark
+    public Book saveEach() {
+        Book last = null;
+        for (Book book : BookData.newBooks(BookData.BATCH_SIZE)) {
+            last = service.save(book);
+        }
+        return last;
+    }
+}
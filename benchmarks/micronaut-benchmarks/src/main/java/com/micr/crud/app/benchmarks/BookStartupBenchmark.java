@@ -0,0 +1,42 @@
+package com.micr.crud.app.benchmarks;
+
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.service.BookService;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from an empty JVM to the first answered query: context start, datasource, repository and
+ * one page read. Every sample runs in a fresh fork, so class loading and JIT warm-up are included,
+ * as they are when an instance starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class BookStartupBenchmark {
+
+    @Param({"jpa", "jdbc"})
+    private String persistence;
+
+    @Benchmark
+    public BookPage startAndQuery() {
+        try (ApplicationContext context = ApplicationContext.run(Map.of("books.persistence", persistence))) {
+            return context.getBean(BookService.class).findPage(0L, BookData.PAGE_SIZE);
+        }
+    }
+}
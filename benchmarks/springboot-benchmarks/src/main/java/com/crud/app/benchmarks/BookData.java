@@ -0,0 +1,45 @@
+package com.crud.app.benchmarks;
+
+import com.crud.app.entity.Book;
+import com.crud.app.service.BookService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the catalog before a run and removes what a benchmark inserted after each iteration,
+ * so every iteration reads from a table of the same size.
+ */
+final class BookData {
+    static final int SEED_SIZE = 1_000;
+    static final int PAGE_SIZE = 20;
+    static final int BATCH_SIZE = 50;
+
+    private BookData() {
+    }
+
+    static List<Book> newBooks(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(new Book("Title " + i, "Author " + i));
+        }
+        return books;
+    }
+
+    /**
+     * Inserts {@link #SEED_SIZE} books and returns their ids in ascending order.
+     */
+    static long[] seed(BookService service) {
+        return service.saveAll(newBooks(SEED_SIZE)).stream().mapToLong(Book::getId).sorted().toArray();
+    }
+
+    /**
+     * Deletes every book with an id greater than {@code lastSeededId}.
+     */
+    static void purgeAfter(BookService service, long lastSeededId) {
+        List<Book> rows;
+        while (!(rows = service.findPage(lastSeededId, 100).items()).isEmpty()) {
+            service.deleteAll(rows.stream().map(Book::getId).toList());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.crud.app.benchmarks;
+
+import com.crud.app.Application;
+import com.crud.app.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips through {@code BookController} on a local port. The client is the JDK
+ * {@link HttpClient} in both stacks, so only the server side differs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookHttpBenchmark {
+
+    private static final String NEW_BOOK = "{\"title\":\"Effective Java\",\"author\":\"Joshua Bloch\"}";
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private HttpClient client;
+    private URI books;
+    private long[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class).run("--server.port=0");
+        service = context.getBean(BookService.class);
+        ids = BookData.seed(service);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        books = URI.create("http://localhost:" + port + "/books");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        BookData.purgeAfter(service, ids[ids.length - 1]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public String getById() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(books.resolve("/books/" + ids[next++ % ids.length])).GET());
+    }
+
+    @Benchmark
+    public String getPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(books.resolve("/books?limit=" + BookData.PAGE_SIZE)).GET());
+    }
+
+    @Benchmark
+    public String create() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(books)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(NEW_BOOK)));
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,30 @@
+package com.crud.app.benchmarks;
+
+import com.crud.app.Application;
+import com.micr.example.load.LoadGenerator;
+import com.micr.example.load.LoadOptions;
+import com.micr.example.load.LoadReport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+
+/**
+ * Boots the Spring Boot app on a random port and runs the {@link LoadGenerator} against it.
+ * Arguments are {@link LoadOptions}.
+ */
+public class BookLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run("--server.port=0")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port), options);
+            LoadReport report = new LoadReport("springboot-crud-app", options, generator.run());
+            report.print(System.out);
+            report.write(options.out());
+        }
+    }
+}
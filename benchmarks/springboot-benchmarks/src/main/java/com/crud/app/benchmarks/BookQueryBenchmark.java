@@ -0,0 +1,111 @@
+package com.crud.app.benchmarks;
+
+import com.crud.app.Application;
+import com.crud.app.dto.BookPage;
+import com.crud.app.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The author and title finders of {@link BookService} on a table of {@link #ROWS} books, with the
+ * {@code idx_book_author} and {@code idx_book_title} indexes ({@code indexed=true}) and after
+ * dropping them ({@code indexed=false}), so each lookup falls back to a full table scan. The H2
+ * query plans of both cases are printed during setup.
+ * <p>
+ * Rows are inserted with one {@code INSERT ... SELECT}, bypassing the service; every author has
+ * {@code ROWS / AUTHORS} books and every title prefix looked up matches ten.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookQueryBenchmark {
+    static final int ROWS = 1_000_000;
+    static final int AUTHORS = 10_000;
+    // a step coprime to the number of authors and rows, so consecutive calls hit unrelated keys
+    private static final int STEP = 7_919;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        service = context.getBean(BookService.class);
+        DataSource dataSource = context.getBean(DataSource.class);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO book (id, title, author) "
+                    + "SELECT X, 'Title ' || LPAD(X, 7, '0'), 'Author ' || MOD(X, " + AUTHORS + ") FROM SYSTEM_RANGE(1, " + ROWS + ")");
+            statement.execute("ALTER SEQUENCE book_seq RESTART WITH " + (ROWS + 1));
+            if (!indexed) {
+                statement.execute("DROP INDEX idx_book_author");
+                statement.execute("DROP INDEX idx_book_title");
+            }
+            statement.execute("ANALYZE");
+            explain(statement, "SELECT * FROM book WHERE author = 'Author 42' AND id > 0 ORDER BY id LIMIT 21");
+            explain(statement, "SELECT * FROM book WHERE title LIKE 'Title 004242%' ORDER BY title, id LIMIT 20");
+            explain(statement, "SELECT COUNT(*) FROM book WHERE author = 'Author 42'");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookPage findByAuthor() {
+        return service.findByAuthor("Author " + nextKey(AUTHORS), 0L, BookData.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookPage findByTitlePrefix() {
+        // titles are zero-padded to seven digits, so six of them match ten books
+        return service.findByTitlePrefix(String.format("Title %06d", nextKey(ROWS / 10)), null, BookData.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long countByAuthor() {
+        return service.countByAuthor("Author " + nextKey(AUTHORS));
+    }
+
+    private int nextKey(int bound) {
+        next += STEP;
+        return Math.floorMod(next, bound);
+    }
+
+    private void explain(Statement statement, String sql) throws SQLException {
+        try (ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            plan.next();
+            System.out.println("indexed=" + indexed + ": " + plan.getString(1).replaceAll("\\s+", " "));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+#!/usr/bin/env bash
+#
+# Cold start of each app as a JVM jar, a JVM jar with AOT optimizations, a GraalVM native image and
+# a CRaC restore of a warmed-up JVM: time from process launch to the first successful GET /books
+# (the first database query), and the resident set size and, on the JVM, the number of loaded
+# classes right after it.
+#
+#   benchmarks/startup.sh                          # both apps, all variants, 5 runs each
+#   RUNS=10 VARIANTS="jvm aot" benchmarks/startup.sh springboot
+#   SKIP_BUILD=true benchmarks/startup.sh micronaut
+#
+# Native variants need a GraalVM JDK (native-image on the PATH or in $JAVA_HOME/bin) and are skipped
+# otherwise. The crac variant needs a JDK with CRaC (e.g. Azul Zulu CRaC builds, Linux only); it takes
+# one checkpoint after WARMUP_ITERATIONS warm-up rounds and then measures restores from it. Results
+# are printed and written to benchmarks/target/startup-result.json.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/benchmarks/target/startup"
+RUNS="${RUNS:-5}"
+VARIANTS="${VARIANTS:-jvm aot native crac}"
+PORT="${PORT:-18080}"
+TIMEOUT_S="${TIMEOUT_S:-60}"
+SKIP_BUILD="${SKIP_BUILD:-false}"
+WARMUP_ITERATIONS="${WARMUP_ITERATIONS:-200}"
+APPS=("$@")
+[ ${#APPS[@]} -eq 0 ] && APPS=(micronaut springboot)
+
+MVN="mvn -B -q -DskipTests"
+
+has_native_image() {
+    command -v native-image >/dev/null 2>&1 || [ -x "${JAVA_HOME:-}/bin/native-image" ]
+}
+
+has_crac() {
+    java -XX:CRaCCheckpointTo="$OUT/crac-probe" -version >/dev/null 2>&1
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+rss_mb() {
+    echo $(( $(ps -o rss= -p "$1") / 1024 ))
+}
+
+# Builds one variant and copies the artifact to $OUT, so variants do not overwrite each other.
+build() {
+    local app=$1 variant=$2
+    case "$app/$variant" in
+        micronaut/jvm)
+            $MVN -pl micronaut-crud-app package \
+                && cp micronaut-crud-app/target/micronaut-crud-app-1.0-SNAPSHOT.jar "$OUT/micronaut-jvm.jar" ;;
+        micronaut/aot)
+            $MVN -pl micronaut-crud-app -Paot package \
+                && cp micronaut-crud-app/target/micronaut-crud-app-1.0-SNAPSHOT.jar "$OUT/micronaut-aot.jar" ;;
+        micronaut/native)
+            $MVN -pl micronaut-crud-app -Pnative package \
+                && cp micronaut-crud-app/target/micronaut-crud-app "$OUT/micronaut-native" ;;
+        springboot/jvm)
+            $MVN -pl springboot-crud-app package \
+                && cp springboot-crud-app/target/springboot-crud-app-1.0-SNAPSHOT-exec.jar "$OUT/springboot-jvm.jar" ;;
+        springboot/aot)
+            $MVN -pl springboot-crud-app -Paot package \
+                && cp springboot-crud-app/target/springboot-crud-app-1.0-SNAPSHOT-exec.jar "$OUT/springboot-aot.jar" ;;
+        springboot/native)
+            $MVN -pl springboot-crud-app -Pnative package \
+                && cp springboot-crud-app/target/springboot-crud-app "$OUT/springboot-native" ;;
+        */crac)
+            build "$app" jvm && checkpoint "$app" ;;
+    esac
+}
+
+# Starts the JVM jar with the warm-up enabled; the app checkpoints itself to $OUT/<app>-crac and
+# the JVM exits. Restores listen on the same $PORT.
+checkpoint() {
+    local app=$1
+    rm -rf "${OUT:?}/$app-crac"
+    MICRONAUT_SERVER_PORT=$PORT SERVER_PORT=$PORT java -XX:CRaCCheckpointTo="$OUT/$app-crac" \
+        -Dbooks.warmup-iterations="$WARMUP_ITERATIONS" -Dbooks.checkpoint-after-warmup=true \
+        -jar "$OUT/$app-jvm.jar" || true
+    [ -d "$OUT/$app-crac" ] && [ -n "$(ls -A "$OUT/$app-crac")" ]
+}
+
+command_of() {
+    local app=$1 variant=$2 java="java -Xlog:class+load=info:file=$OUT/class-load.log"
+    case "$variant" in
+        jvm) echo "$java -jar $OUT/$app-jvm.jar" ;;
+        aot) if [ "$app" = springboot ]; then
+                 echo "$java -Dspring.aot.enabled=true -jar $OUT/$app-aot.jar"
+             else
+                 echo "$java -jar $OUT/$app-aot.jar"
+             fi ;;
+        native) echo "$OUT/$app-native" ;;
+        crac) echo "java -XX:CRaCRestoreFrom=$OUT/$app-crac" ;;
+    esac
+}
+
+# Prints "<time to first request ms> <rss MB> <loaded classes>" for one cold start.
+measure() {
+    local cmd=$1 start pid elapsed rss classes=n/a
+    rm -f "$OUT/class-load.log"
+    start=$(now_ms)
+    MICRONAUT_SERVER_PORT=$PORT SERVER_PORT=$PORT $cmd >"$OUT/last-run.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/books"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_S * 1000 )) ]; then
+            kill "$pid" 2>/dev/null || true
+            echo "failed to serve GET /books, see $OUT/last-run.log" >&2
+            return 1
+        fi
+        sleep 0.005
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(rss_mb "$pid")
+    [ -f "$OUT/class-load.log" ] && classes=$(wc -l <"$OUT/class-load.log" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss $classes"
+}
+
+cd "$ROOT"
+mkdir -p "$OUT"
+results=()
+printf '%-11s %-7s %12s %12s %12s %10s %10s\n' app variant "ttfr min ms" "ttfr p50 ms" "ttfr max ms" "rss MB" classes
+for app in "${APPS[@]}"; do
+    for variant in $VARIANTS; do
+        if [ "$variant" = native ] && ! has_native_image; then
+            echo "skipping $app/native: native-image not found" >&2
+            continue
+        fi
+        if [ "$variant" = crac ] && ! has_crac; then
+            echo "skipping $app/crac: this JVM does not support CRaC" >&2
+            continue
+        fi
+        if [ "$SKIP_BUILD" != true ] && ! build "$app" "$variant" >"$OUT/build-$app-$variant.log" 2>&1; then
+            echo "build of $app/$variant failed, see $OUT/build-$app-$variant.log" >&2
+            exit 1
+        fi
+        cmd=$(command_of "$app" "$variant")
+        times=() rss=()
+        for _ in $(seq "$RUNS"); do
+            read -r t r classes < <(measure "$cmd")
+            times+=("$t") rss+=("$r")
+        done
+        sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+        rss_sorted=($(printf '%s\n' "${rss[@]}" | sort -n))
+        min=${sorted[0]} max=${sorted[-1]} p50=${sorted[$(( RUNS / 2 ))]} rss50=${rss_sorted[$(( RUNS / 2 ))]}
+        [ "$classes" = n/a ] && classes_json=null || classes_json=$classes
+        printf '%-11s %-7s %12s %12s %12s %10s %10s\n' "$app" "$variant" "$min" "$p50" "$max" "$rss50" "$classes"
+        results+=("{\"app\":\"$app\",\"variant\":\"$variant\",\"runs\":$RUNS,\"ttfrMinMs\":$min,\"ttfrP50Ms\":$p50,\"ttfrMaxMs\":$max,\"rssP50Mb\":$rss50,\"loadedClasses\":$classes_json}")
+    done
+done
+
+(IFS=,; echo "[${results[*]}]") > "$ROOT/benchmarks/target/startup-result.json"
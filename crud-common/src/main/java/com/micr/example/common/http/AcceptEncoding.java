@@ -0,0 +1,49 @@
+package com.micr.example.common.http;
+
+/**
+ * Reads the {@code Accept-Encoding} request header for the apps that send stored gzip responses
+ * themselves instead of leaving compression to the server.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {}
+
+    /**
+     * Whether the {@code Accept-Encoding} values allow gzip, by name or through {@code *}, with a
+     * non-zero weight. No header at all, null or empty, allows only the identity encoding.
+     */
+    public static boolean acceptsGzip(Iterable<String> values) {
+        if (values == null) {
+            return false;
+        }
+        Float gzip = null;
+        Float any = null;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                    gzip = weight(parts);
+                } else if (name.equals("*")) {
+                    any = weight(parts);
+                }
+            }
+        }
+        Float weight = gzip != null ? gzip : any;
+        return weight != null && weight > 0;
+    }
+
+    private static float weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
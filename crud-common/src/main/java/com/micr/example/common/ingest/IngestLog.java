@@ -0,0 +1,262 @@
+package com.micr.example.common.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of accepted and committed books, one line per record: {@code A <id> <json>}
+ * before a book is queued and {@code C <id>} once it is done with: its batch has committed, it
+ * failed for good, or the queue turned it away. {@link #pending} returns the books that the
+ * previous run accepted and never committed, in acceptance order.
+ * <p>
+ * The log is a series of segment files, {@code <path>.0}, {@code <path>.1} and so on. Books are
+ * accepted into the newest segment until it holds {@code segmentBytes}, and the {@code C} record of
+ * a book goes to the segment that holds its {@code A} record. A segment whose books are all
+ * committed is therefore no longer needed: an older one is deleted and the newest one emptied,
+ * so the log only keeps the segments of books still pending, and a restart only reads those.
+ * <p>
+ * Records are written through the OS page cache, so they survive a crash of the JVM. With
+ * {@code fsync} every append is also forced to the disk, which survives a power loss. The books
+ * accepted together are appended in one write and forced once, so the cost of a disk flush is
+ * shared by all the requests that arrived while the previous one ran.
+ * <p>
+ * Safe to use from several threads. A lock, not a monitor, guards the appends, so a virtual
+ * thread that waits for it or holds it during the I/O does not pin its carrier thread.
+ */
+public class IngestLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestLog.class);
+
+    private final Path path;
+    private final boolean fsync;
+    private final long segmentBytes;
+    // oldest first; books are accepted into the last one
+    private final List<Segment> segments = new ArrayList<>();
+    // the segment of every book that is not committed yet
+    private final Map<String, Segment> owners = new HashMap<>();
+    private final Map<String, String> recovered = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public IngestLog(Path path, boolean fsync, long segmentBytes) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        this.segmentBytes = segmentBytes;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long next = 0;
+        for (Path file : segmentFiles()) {
+            next = Math.max(next, sequence(file) + 1);
+            recover(file);
+        }
+        segments.add(open(path.resolveSibling(path.getFileName() + "." + next)));
+    }
+
+    /**
+     * The books accepted by the previous run and never committed, by tracking id, as the JSON they
+     * were accepted with. A line cut short by a crash is skipped: its request was never answered.
+     */
+    public Map<String, String> pending() {
+        return Collections.unmodifiableMap(recovered);
+    }
+
+    /**
+     * Appends the books, tracking id to JSON, in iteration order, in one write per segment, and
+     * with {@code fsync} forces them to the disk once.
+     */
+    public void accepted(Map<String, byte[]> books) throws IOException {
+        lock.lock();
+        try {
+            Segment segment = segments.get(segments.size() - 1);
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            List<String> ids = new ArrayList<>();
+            Set<Segment> appended = new LinkedHashSet<>();
+            for (Map.Entry<String, byte[]> book : books.entrySet()) {
+                if ((segment.live > 0 || !ids.isEmpty()) && segment.channel.size() + records.size() >= segmentBytes) {
+                    append(segment, records, ids, appended);
+                    segment = open(path.resolveSibling(path.getFileName() + "." + (segment.sequence + 1)));
+                    segments.add(segment);
+                }
+                records.writeBytes(("A " + book.getKey() + " ").getBytes(StandardCharsets.US_ASCII));
+                records.writeBytes(book.getValue());
+                records.write('\n');
+                ids.add(book.getKey());
+            }
+            append(segment, records, ids, appended);
+            if (fsync) {
+                for (Segment written : appended) {
+                    written.channel.force(false);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that the books are done with. A segment left with no pending book is deleted, or
+     * emptied if books are still accepted into it, instead of being written to.
+     */
+    public void committed(Collection<String> ids) throws IOException {
+        lock.lock();
+        try {
+            Map<Segment, StringBuilder> records = new LinkedHashMap<>();
+            for (String id : ids) {
+                Segment segment = owners.remove(id);
+                if (segment != null) {
+                    segment.live--;
+                    records.computeIfAbsent(segment, s -> new StringBuilder()).append("C ").append(id).append('\n');
+                }
+            }
+            for (Map.Entry<Segment, StringBuilder> entry : records.entrySet()) {
+                Segment segment = entry.getKey();
+                if (segment.live > 0) {
+                    write(segment, ByteBuffer.wrap(entry.getValue().toString().getBytes(StandardCharsets.US_ASCII)));
+                    if (fsync) {
+                        segment.channel.force(false);
+                    }
+                } else if (segment == segments.get(segments.size() - 1)) {
+                    segment.channel.truncate(0);
+                    segment.channel.position(0);
+                } else {
+                    segment.channel.close();
+                    Files.delete(segment.path);
+                    segments.remove(segment);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the segments of the previous run, oldest first; a log written before segments is read first
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(path.toAbsolutePath().getParent())) {
+            return files.filter(file -> Files.isRegularFile(file) && sequence(file) >= -1)
+                    .sorted(Comparator.comparingLong(this::sequence))
+                    .toList();
+        }
+    }
+
+    // -1 for the log file itself, -2 for a file that is not part of the log
+    private long sequence(Path file) {
+        String name = file.getFileName().toString();
+        String base = path.getFileName().toString();
+        if (name.equals(base)) {
+            return -1;
+        }
+        String suffix = name.startsWith(base + ".") ? name.substring(base.length() + 1) : "";
+        return !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit) ? Long.parseLong(suffix) : -2;
+    }
+
+    private void recover(Path file) throws IOException {
+        Map<String, String> accepted = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] record = line.split(" ", 3);
+                if (record.length == 3 && record[0].equals("A")) {
+                    accepted.put(record[1], record[2]);
+                } else if (record.length == 2 && record[0].equals("C")) {
+                    accepted.remove(record[1]);
+                } else if (!line.isEmpty()) {
+                    log.warn("Skipping a damaged record in {}", file);
+                }
+            }
+        }
+        if (accepted.isEmpty()) {
+            Files.delete(file);
+            return;
+        }
+        Segment segment = open(file);
+        segment.live = accepted.size();
+        segments.add(segment);
+        accepted.keySet().forEach(id -> owners.put(id, segment));
+        recovered.putAll(accepted);
+    }
+
+    private Segment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        Segment segment = new Segment(file, sequence(file), channel);
+        if (channel.size() > 0 && !endsWithNewline(channel)) {
+            // ends a record cut short by a crash, so it does not run into the next one
+            write(segment, ByteBuffer.wrap(new byte[] {'\n'}));
+        }
+        return segment;
+    }
+
+    private static boolean endsWithNewline(FileChannel channel) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, channel.size() - 1);
+        return last.get(0) == '\n';
+    }
+
+    // the books count as pending only once their records are written
+    private void append(Segment segment, ByteArrayOutputStream records, List<String> ids, Set<Segment> appended) throws IOException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        write(segment, ByteBuffer.wrap(records.toByteArray()));
+        segment.live += ids.size();
+        ids.forEach(id -> owners.put(id, segment));
+        appended.add(segment);
+        records.reset();
+        ids.clear();
+    }
+
+    private static void write(Segment segment, ByteBuffer records) throws IOException {
+        while (records.hasRemaining()) {
+            segment.channel.write(records);
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        // books accepted into this segment and not committed yet
+        private int live;
+
+        private Segment(Path path, long sequence, FileChannel channel) {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.micr.example.common.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind queue: items are accepted without touching the database and committed in batches
+ * by a background writer. Each app subclasses it for its entity, its JSON mapper and its
+ * transactions.
+ * <p>
+ * {@link #enqueue} takes no lock: it puts the item on an {@link MpscRingBuffer} and waits for the
+ * log thread. The log thread appends everything queued since its previous pass to the
+ * {@link IngestLog} in one write, with {@code fsync} one disk flush, and releases the waiting
+ * requests: a group commit, so the cost of the I/O is shared by every request that arrived during
+ * the previous one. A request returns once its item is in the log, so an accepted item survives a
+ * crash, and never waits for the database: the writer thread commits the logged items, up to
+ * {@code batchSize} per transaction.
+ * <p>
+ * A batch that fails is retried item by item, so one bad item does not fail the others. A failure
+ * of the database rather than of the item, such as a lost connection, a lock timeout or a
+ * deadlock (see {@link #isTransient}), keeps the item: the writer retries it after a delay that
+ * doubles up to {@code retryMaxDelay}, and takes no new items meanwhile. An item leaves the log
+ * only once it is committed or has failed for good. Items the log holds from a previous run are
+ * committed by {@link #start} before it returns.
+ */
+public abstract class IngestQueue<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestQueue.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * @param capacity items accepted and not yet committed, rounded up to a power of two
+     * @param batchSize most items committed in one transaction
+     * @param logSegmentBytes size at which the log starts a new segment
+     * @param fsync forces every log append to the disk
+     * @param retryDelay delay before items that failed because of the database are retried
+     * @param retryMaxDelay upper bound for the doubling {@code retryDelay}
+     */
+    public record Options(int capacity, int batchSize, Path logPath, long logSegmentBytes, boolean fsync,
+                          Duration retryDelay, Duration retryMaxDelay) {
+    }
+
+    /**
+     * An item and the tracking id it was accepted under.
+     */
+    public record Tracked<T>(String trackingId, T item) {
+    }
+
+    private final String name;
+    private final Options options;
+    private final int batchSize;
+    private final MpscRingBuffer<Accepted<T>> queue;
+    // logged, for the writer
+    private final Queue<Tracked<T>> logged = new ConcurrentLinkedQueue<>();
+    // accepted and not yet committed or failed for good, including the items waiting for a retry
+    private final AtomicInteger uncommitted = new AtomicInteger();
+    // requests between their check of running and their offer; the log thread waits for them when stopping
+    private final AtomicInteger entering = new AtomicInteger();
+    private IngestLog ingestLog;
+    private Thread logger;
+    private Thread writer;
+    private volatile boolean running;
+
+    /**
+     * @param name prefix of the log and writer thread names
+     */
+    protected IngestQueue(String name, Options options) {
+        this.name = name;
+        this.options = options;
+        this.batchSize = Math.max(1, options.batchSize());
+        this.queue = new MpscRingBuffer<>(options.capacity());
+    }
+
+    /**
+     * Commits what the log still holds from a previous run, then starts the log and writer threads.
+     */
+    public void start() {
+        Deque<Tracked<T>> retries;
+        try {
+            ingestLog = new IngestLog(options.logPath(), options.fsync(), options.logSegmentBytes());
+            retries = replay(ingestLog.pending());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open ingest log " + options.logPath(), e);
+        }
+        uncommitted.set(retries.size());
+        logger = Thread.ofPlatform().daemon().name(name + "-log").unstarted(this::append);
+        writer = Thread.ofPlatform().daemon().name(name + "-writer").unstarted(() -> drain(retries));
+        running = true;
+        logger.start();
+        writer.start();
+    }
+
+    /**
+     * Stops taking items, then waits for the queued ones to be logged and committed. Items that
+     * are waiting to be retried stay in the log for the next start.
+     */
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        if (logger != null) {
+            LockSupport.unpark(logger);
+            logger.join();
+        }
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join();
+        }
+        if (ingestLog != null) {
+            ingestLog.close();
+        }
+    }
+
+    /**
+     * Items accepted and not yet committed, including those waiting for a retry.
+     */
+    public int queued() {
+        return uncommitted.get();
+    }
+
+    /**
+     * Queues {@code item} under {@code trackingId} and returns true once it is in the log, or
+     * returns false without queueing it when {@code capacity} items are not committed yet.
+     *
+     * @throws IllegalStateException when the queue has been stopped
+     * @throws UncheckedIOException when the item cannot be serialized or written to the log
+     */
+    protected boolean enqueue(String trackingId, T item) {
+        Accepted<T> accepted;
+        try {
+            accepted = new Accepted<>(new Tracked<>(trackingId, item), serialize(item), new CompletableFuture<>());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize " + trackingId, e);
+        }
+        entering.incrementAndGet();
+        try {
+            if (!running) {
+                throw new IllegalStateException("The ingest queue is stopped");
+            }
+            if (uncommitted.incrementAndGet() > queue.capacity() || !queue.offer(accepted)) {
+                uncommitted.decrementAndGet();
+                return false;
+            }
+        } finally {
+            entering.decrementAndGet();
+        }
+        LockSupport.unpark(logger);
+        try {
+            accepted.logged().join();
+        } catch (CompletionException e) {
+            throw new UncheckedIOException("Cannot log " + trackingId, (IOException) e.getCause());
+        }
+        return true;
+    }
+
+    protected abstract byte[] serialize(T item) throws IOException;
+
+    protected abstract T deserialize(String json) throws IOException;
+
+    /**
+     * Saves {@code batch} in one transaction and records the items as saved, or throws.
+     */
+    protected abstract void saveAll(List<Tracked<T>> batch);
+
+    /**
+     * Saves one item and records it as saved, or throws.
+     */
+    protected abstract void save(Tracked<T> item);
+
+    /**
+     * Records that {@code item} failed for good.
+     */
+    protected abstract void failed(Tracked<T> item, RuntimeException failure);
+
+    /**
+     * A copy of {@code item} for another attempt: a failed one may hold an id that was rolled back.
+     */
+    protected abstract T fresh(T item);
+
+    /**
+     * Whether {@code failure} is the database's rather than the item's, so that the item is
+     * retried: an {@link SQLTransientException}, an {@link SQLRecoverableException}, or SQL state
+     * class 08 (connection exception) or 40 (transaction rollback) anywhere in the cause chain.
+     */
+    protected boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof SQLTransientException || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("08") || sql.getSQLState().startsWith("40"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the items that failed transiently are left to the writer, so that startup does not wait for the database
+    private Deque<Tracked<T>> replay(Map<String, String> pending) {
+        Deque<Tracked<T>> retries = new ArrayDeque<>();
+        if (pending.isEmpty()) {
+            return retries;
+        }
+        List<Tracked<T>> items = new ArrayList<>(pending.size());
+        List<String> unreadable = new ArrayList<>();
+        pending.forEach((id, json) -> {
+            try {
+                items.add(new Tracked<>(id, deserialize(json)));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable item {} in the ingest log: {}", id, e.getMessage());
+                unreadable.add(id);
+            }
+        });
+        logCommitted(unreadable);
+        for (int from = 0; from < items.size(); from += batchSize) {
+            retries.addAll(commit(items.subList(from, Math.min(from + batchSize, items.size()))));
+        }
+        log.info("Committed {} items left in the ingest log by the previous run", items.size() - retries.size());
+        return retries;
+    }
+
+    // log thread: one append, and one flush, for everything queued since the previous pass
+    private void append() {
+        List<Accepted<T>> group = new ArrayList<>();
+        while (running || entering.get() > 0 || !queue.isEmpty()) {
+            queue.drainTo(group, queue.capacity());
+            if (group.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            Map<String, byte[]> records = new LinkedHashMap<>();
+            group.forEach(accepted -> records.put(accepted.tracked().trackingId(), accepted.json()));
+            try {
+                ingestLog.accepted(records);
+                group.forEach(accepted -> logged.add(accepted.tracked()));
+                LockSupport.unpark(writer);
+                group.forEach(accepted -> accepted.logged().complete(null));
+            } catch (IOException e) {
+                log.error("Cannot log {} items: {}", group.size(), e.getMessage());
+                uncommitted.addAndGet(-group.size());
+                group.forEach(accepted -> accepted.logged().completeExceptionally(e));
+            }
+            group.clear();
+        }
+    }
+
+    // writer thread
+    private void drain(Deque<Tracked<T>> retries) {
+        List<Tracked<T>> batch = new ArrayList<>(batchSize);
+        long delay = 0;
+        while (logger.isAlive() || !logged.isEmpty() || !retries.isEmpty()) {
+            while (batch.size() < batchSize && !retries.isEmpty()) {
+                batch.add(retries.poll());
+            }
+            for (Tracked<T> next; batch.size() < batchSize && (next = logged.poll()) != null; ) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            List<Tracked<T>> failed = commit(batch);
+            batch.clear();
+            if (failed.isEmpty()) {
+                delay = 0;
+                continue;
+            }
+            failed.reversed().forEach(retries::addFirst);
+            delay = delay == 0 ? options.retryDelay().toNanos() : Math.min(delay * 2, options.retryMaxDelay().toNanos());
+            log.warn("{} items could not be committed, retrying in {} ms", failed.size(), TimeUnit.NANOSECONDS.toMillis(delay));
+            if (!backOff(delay)) {
+                log.warn("Stopped with {} items left in the ingest log for the next start", retries.size() + logged.size());
+                return;
+            }
+        }
+    }
+
+    // false once the queue is stopped
+    private boolean backOff(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long left = nanos; running && left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, left);
+        }
+        return running;
+    }
+
+    /**
+     * Commits {@code batch} and returns the items to retry, those that failed because of the
+     * database rather than because of the item.
+     */
+    private List<Tracked<T>> commit(List<Tracked<T>> batch) {
+        try {
+            saveAll(batch);
+            done(batch.stream().map(Tracked::trackingId).toList());
+            return List.of();
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                log.warn("Batch of {} items failed: {}", batch.size(), e.getMessage());
+                return batch.stream().map(this::retried).toList();
+            }
+            log.warn("Batch of {} items failed, saving them one by one: {}", batch.size(), e.getMessage());
+        }
+        List<String> done = new ArrayList<>(batch.size());
+        List<Tracked<T>> retry = new ArrayList<>();
+        for (Tracked<T> tracked : batch) {
+            Tracked<T> attempt = retried(tracked);
+            try {
+                save(attempt);
+                done.add(attempt.trackingId());
+            } catch (RuntimeException failure) {
+                if (isTransient(failure)) {
+                    retry.add(attempt);
+                } else {
+                    failed(attempt, failure);
+                    done.add(attempt.trackingId());
+                }
+            }
+        }
+        done(done);
+        return retry;
+    }
+
+    private Tracked<T> retried(Tracked<T> tracked) {
+        return new Tracked<>(tracked.trackingId(), fresh(tracked.item()));
+    }
+
+    private void done(List<String> ids) {
+        logCommitted(ids);
+        uncommitted.addAndGet(-ids.size());
+    }
+
+    // a lost record makes the item be committed again after a crash, which is logged but not fatal
+    private void logCommitted(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            ingestLog.committed(ids);
+        } catch (IOException e) {
+            log.error("Cannot log {} committed items: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private record Accepted<T>(Tracked<T> tracked, byte[] json, CompletableFuture<Void> logged) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.micr.example.common.search;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results, from {@code offset} to {@code offset + pageSize} but never
+ * past the first {@code maxResults}. Searches are paged by offset, so a cursor is an offset and
+ * must be checked before it is turned into list indexes.
+ *
+ * @param from index of the first result on the page
+ * @param to index one past the last result on the page, at most {@code maxResults}
+ * @param maxResults how many results can be paged to
+ */
+public record SearchWindow(int from, int to, int maxResults) {
+
+    /**
+     * @throws IllegalArgumentException when {@code offset} is negative or past {@code maxResults},
+     *         which no cursor handed out by a search can be
+     */
+    public static SearchWindow of(long offset, int pageSize, int maxResults) {
+        if (offset < 0 || offset > maxResults) {
+            throw new IllegalArgumentException("Offset " + offset + " is outside the first " + maxResults + " results");
+        }
+        int from = (int) offset;
+        // from is at most maxResults, so this does not overflow
+        int to = (int) Math.min((long) from + Math.max(pageSize, 0), maxResults);
+        return new SearchWindow(from, to, maxResults);
+    }
+
+    /**
+     * How many results to rank: one more than the page needs tells whether a next page exists.
+     */
+    public int ranked() {
+        return to + 1;
+    }
+
+    /**
+     * The page out of the first {@link #ranked()} results, empty when there are not {@code from} of them.
+     */
+    public <T> List<T> page(List<T> ranked) {
+        return ranked.subList(Math.min(from, ranked.size()), Math.min(to, ranked.size()));
+    }
+
+    /**
+     * Whether the results go on after this page and it is not the last one that can be paged to;
+     * the next page starts at {@link #to()}.
+     */
+    public boolean hasNext(List<?> ranked) {
+        return ranked.size() > to && to < maxResults;
+    }
+}
@@ -0,0 +1,37 @@
+package com.micr.example.common.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AcceptEncoding Tests")
+class AcceptEncodingTest {
+
+    @Test
+    @DisplayName("Should accept gzip by name or wildcard, unless its weight is zero")
+    void testAcceptsGzip() {
+        assertTrue(acceptsGzip("gzip"));
+        assertTrue(acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(acceptsGzip("X-GZIP"));
+        assertTrue(acceptsGzip("*"));
+        assertFalse(acceptsGzip("br, deflate"));
+        assertFalse(acceptsGzip("gzip;q=0"));
+        assertFalse(acceptsGzip("gzip;q=0, *"));
+        assertFalse(acceptsGzip("gzip;q=high"));
+    }
+
+    @Test
+    @DisplayName("Should read every Accept-Encoding header and treat a missing one as identity only")
+    void testHeaderValues() {
+        assertTrue(AcceptEncoding.acceptsGzip(List.of("br", "gzip")));
+        assertFalse(AcceptEncoding.acceptsGzip(List.of()));
+        assertFalse(AcceptEncoding.acceptsGzip(null));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return AcceptEncoding.acceptsGzip(List.of(acceptEncoding));
+    }
+}
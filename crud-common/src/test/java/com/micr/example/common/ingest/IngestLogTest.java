@@ -0,0 +1,111 @@
+package com.micr.example.common.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IngestLog Tests")
+class IngestLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should start a new segment when the current one is full and delete it once its books are committed")
+    void testCommittedSegmentsAreDeleted() throws Exception {
+        try (IngestLog log = new IngestLog(dir.resolve("ingest.log"), false, 1)) {
+            log.accepted(Map.of("t1", json("One")));
+            log.accepted(Map.of("t2", json("Two")));
+            assertEquals(List.of("ingest.log.0", "ingest.log.1"), files());
+
+            log.committed(List.of("t1"));
+            assertEquals(List.of("ingest.log.1"), files());
+
+            log.committed(List.of("t2"));
+            assertEquals(List.of("ingest.log.1"), files());
+            assertEquals(0, Files.size(dir.resolve("ingest.log.1")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should append books accepted together in order, starting a new segment when one fills up")
+    void testAcceptedTogether() throws Exception {
+        Map<String, byte[]> books = new LinkedHashMap<>();
+        books.put("t1", json("One"));
+        books.put("t2", json("Two"));
+        books.put("t3", json("Three"));
+        try (IngestLog log = new IngestLog(dir.resolve("ingest.log"), true, 40)) {
+            log.accepted(books);
+            assertEquals(List.of("ingest.log.0", "ingest.log.1"), files());
+            assertEquals("""
+                    A t1 {"title":"One"}
+                    A t2 {"title":"Two"}
+                    """, Files.readString(dir.resolve("ingest.log.0")));
+
+            log.committed(List.of("t1", "t2"));
+            assertEquals(List.of("ingest.log.1"), files());
+        }
+
+        try (IngestLog log = new IngestLog(dir.resolve("ingest.log"), false, 40)) {
+            assertEquals(List.of("t3"), List.copyOf(log.pending().keySet()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read back only the books that were never committed")
+    void testPendingAfterRestart() throws Exception {
+        try (IngestLog log = new IngestLog(dir.resolve("ingest.log"), false, 1024)) {
+            log.accepted(Map.of("t1", json("One")));
+            log.accepted(Map.of("t2", json("Two")));
+            log.accepted(Map.of("t3", json("Three")));
+            log.committed(List.of("t2"));
+        }
+
+        try (IngestLog log = new IngestLog(dir.resolve("ingest.log"), false, 1024)) {
+            assertEquals(List.of("t1", "t3"), List.copyOf(log.pending().keySet()));
+            assertEquals("{\"title\":\"One\"}", log.pending().get("t1"));
+            assertEquals(List.of("ingest.log.0", "ingest.log.1"), files());
+
+            log.committed(List.of("t1", "t3"));
+            assertEquals(List.of("ingest.log.1"), files());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read a log written before segments and delete it once its books are committed")
+    void testReadsUnsegmentedLog() throws Exception {
+        Files.writeString(dir.resolve("ingest.log"), """
+                A t1 {"title":"One"}
+                A t2 {"title":"Two"}
+                C t2
+                """);
+
+        try (IngestLog log = new IngestLog(dir.resolve("ingest.log"), false, 1024)) {
+            assertEquals(List.of("t1"), List.copyOf(log.pending().keySet()));
+
+            log.committed(List.of("t1"));
+            assertEquals(List.of("ingest.log.0"), files());
+        }
+    }
+
+    private static byte[] json(String title) {
+        return ("{\"title\":\"" + title + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.micr.example.common.ingest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IngestQueue Tests")
+class IngestQueueTest {
+
+    @TempDir
+    Path dir;
+
+    private TitleQueue queue;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return from enqueue once the item is in the log, before it is committed")
+    void testEnqueueWaitsForTheLogOnly() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        queue = start(8, batch -> await(release));
+
+        assertTrue(queue.enqueue("t1", "One"));
+
+        assertTrue(Files.readString(dir.resolve("ingest.log.0")).contains("A t1 \"One\"\n"));
+        assertTrue(queue.saved.isEmpty());
+        release.countDown();
+        await(() -> queue.saved.containsKey("t1"));
+        await(() -> logSize() == 0);
+    }
+
+    @Test
+    @DisplayName("Should log and commit every item enqueued concurrently")
+    void testConcurrentEnqueue() throws Exception {
+        queue = start(1024, batch -> {});
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                String id = "t" + i;
+                results.add(requests.submit(() -> queue.enqueue(id, "Title " + id)));
+            }
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+
+        await(() -> queue.saved.size() == 500);
+        assertEquals("Title t42", queue.saved.get("t42"));
+        await(() -> queue.queued() == 0);
+        await(() -> logSize() == 0);
+    }
+
+    @Test
+    @DisplayName("Should retry a batch that failed because of the database until it commits")
+    void testTransientFailureIsRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        queue = start(8, batch -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException(new SQLTransientConnectionException("Connection is not available"));
+            }
+        });
+
+        queue.enqueue("t1", "Retried");
+
+        await(() -> queue.saved.containsKey("t1"));
+        assertEquals(3, attempts.get());
+        assertTrue(queue.failed.isEmpty());
+        await(() -> logSize() == 0);
+    }
+
+    @Test
+    @DisplayName("Should keep in the log the items still failing because of the database when stopped")
+    void testStopLeavesFailingItemsForTheNextStart() throws Exception {
+        CountDownLatch attempted = new CountDownLatch(1);
+        queue = start(8, batch -> {
+            attempted.countDown();
+            throw new RuntimeException(new SQLTransientConnectionException("Connection is not available"));
+        });
+        queue.enqueue("t1", "Database down");
+        attempted.await();
+
+        queue.stop();
+
+        assertThrows(IllegalStateException.class, () -> queue.enqueue("t2", "Too late"));
+        queue = start(8, batch -> {});
+        assertEquals("Database down", queue.saved.get("t1"));
+    }
+
+    @Test
+    @DisplayName("Should turn items away while capacity items are not committed")
+    void testFullQueueTurnsItemsAway() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = start(2, batch -> {
+            committing.countDown();
+            await(release);
+        });
+
+        assertTrue(queue.enqueue("t1", "Being committed"));
+        committing.await();
+        assertTrue(queue.enqueue("t2", "Queued"));
+        assertFalse(queue.enqueue("t3", "Turned away"));
+        release.countDown();
+
+        await(() -> queue.queued() == 0);
+        assertTrue(queue.enqueue("t4", "Queued again"));
+        assertFalse(Files.readString(dir.resolve("ingest.log.0")).contains("t3"));
+    }
+
+    @Test
+    @DisplayName("Should save a failed batch item by item and report the items that still fail")
+    void testFailedBatchIsSavedOneByOne() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        queue = start(8, batch -> {
+            await(release);
+            if (batch.size() > 1 || batch.get(0).item().equals("Bad")) {
+                throw new IllegalStateException("constraint violated");
+            }
+        });
+
+        queue.enqueue("t1", "Good");
+        queue.enqueue("t2", "Bad");
+        release.countDown();
+
+        await(() -> queue.failed.containsKey("t2"));
+        assertEquals("constraint violated", queue.failed.get("t2"));
+        assertEquals("Good", queue.saved.get("t1"));
+        await(() -> logSize() == 0);
+    }
+
+    @Test
+    @DisplayName("Should commit at startup the items that the log holds from a previous run")
+    void testReplaysUncommittedItems() throws Exception {
+        Files.writeString(dir.resolve("ingest.log"), """
+                A t1 "Left behind"
+                A t2 "Committed"
+                C t2
+                A t3 "Cut sh""");
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+        queue = start(8, batch -> batches.add(batch.stream().map(IngestQueue.Tracked::item).toList()));
+
+        assertEquals(List.of(List.of("Left behind")), batches);
+        assertEquals("Left behind", queue.saved.get("t1"));
+        await(() -> logSize() == 0);
+    }
+
+    private TitleQueue start(int capacity, Consumer<List<IngestQueue.Tracked<String>>> commit) {
+        IngestQueue.Options options = new IngestQueue.Options(capacity, 100, dir.resolve("ingest.log"),
+                16 * 1024 * 1024, true, Duration.ofMillis(10), Duration.ofMillis(100));
+        TitleQueue started = new TitleQueue(options, commit);
+        started.start();
+        return started;
+    }
+
+    // every segment of the log
+    private long logSize() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    // items are titles, logged in quotes; commit decides whether a batch or a single item fails
+    private static final class TitleQueue extends IngestQueue<String> {
+
+        final Map<String, String> saved = new ConcurrentHashMap<>();
+        final Map<String, String> failed = new ConcurrentHashMap<>();
+        private final Consumer<List<Tracked<String>>> commit;
+
+        TitleQueue(Options options, Consumer<List<Tracked<String>>> commit) {
+            super("test-ingest", options);
+            this.commit = commit;
+        }
+
+        @Override
+        protected byte[] serialize(String title) {
+            return ("\"" + title + "\"").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected String deserialize(String json) throws IOException {
+            if (json.length() < 2 || !json.endsWith("\"")) {
+                throw new IOException("Cut short: " + json);
+            }
+            return json.substring(1, json.length() - 1);
+        }
+
+        @Override
+        protected void saveAll(List<Tracked<String>> batch) {
+            commit.accept(batch);
+            batch.forEach(title -> saved.put(title.trackingId(), title.item()));
+        }
+
+        @Override
+        protected void save(Tracked<String> title) {
+            commit.accept(List.of(title));
+            saved.put(title.trackingId(), title.item());
+        }
+
+        @Override
+        protected void failed(Tracked<String> title, RuntimeException failure) {
+            failed.put(title.trackingId(), failure.getMessage());
+        }
+
+        @Override
+        protected String fresh(String title) {
+            return title;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.micr.example.common.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MpscRingBuffer Tests")
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("Should round the capacity up and refuse elements when full")
+    void testBoundedFifo() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(1, 2, 3), drained);
+        assertEquals(4, buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(0));
+    }
+
+    @Test
+    @DisplayName("Should hand every element of concurrent producers to the consumer exactly once")
+    void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+
+        BitSet seen = new BitSet(producers * perProducer);
+        int[] lastByProducer = new int[producers];
+        Arrays.fill(lastByProducer, -1);
+        for (int received = 0; received < producers * perProducer; ) {
+            Integer element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            assertFalse(seen.get(element), "received twice: " + element);
+            seen.set(element);
+            // each producer's elements arrive in the order it offered them
+            assertTrue(element > lastByProducer[element / perProducer]);
+            lastByProducer[element / perProducer] = element;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, seen.cardinality());
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,52 @@
+package com.micr.example.common.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchWindow Tests")
+class SearchWindowTest {
+
+    private static final List<Integer> RANKED = IntStream.range(0, 10).boxed().toList();
+
+    @Test
+    @DisplayName("Should page through the results and stop at the last one")
+    void testPages() {
+        SearchWindow first = SearchWindow.of(0, 4, 100);
+        SearchWindow last = SearchWindow.of(8, 4, 100);
+
+        assertEquals(List.of(0, 1, 2, 3), first.page(RANKED.subList(0, first.ranked())));
+        assertTrue(first.hasNext(RANKED.subList(0, first.ranked())));
+        assertEquals(List.of(8, 9), last.page(RANKED));
+        assertFalse(last.hasNext(RANKED));
+    }
+
+    @Test
+    @DisplayName("Should stop paging at the maximum number of results")
+    void testMaxResults() {
+        SearchWindow window = SearchWindow.of(4, 4, 6);
+
+        assertEquals(List.of(4, 5), window.page(RANKED.subList(0, window.ranked())));
+        assertFalse(window.hasNext(RANKED));
+    }
+
+    @Test
+    @DisplayName("Should return an empty page for an offset past the results or at the maximum")
+    void testEmptyPage() {
+        assertEquals(List.of(), SearchWindow.of(20, 4, 100).page(RANKED));
+        assertEquals(List.of(), SearchWindow.of(100, 4, 100).page(RANKED));
+        assertFalse(SearchWindow.of(100, 4, 100).hasNext(RANKED));
+    }
+
+    @Test
+    @DisplayName("Should reject a negative offset or one past the maximum, without overflowing")
+    void testInvalidOffset() {
+        assertThrows(IllegalArgumentException.class, () -> SearchWindow.of(-1, 4, 100));
+        assertThrows(IllegalArgumentException.class, () -> SearchWindow.of(101, 4, 100));
+        assertThrows(IllegalArgumentException.class, () -> SearchWindow.of(Long.MAX_VALUE, 4, 100));
+    }
+}
@@ -15,4 +15,32 @@ import java.lang.annotation.*;
 public @interface RetryOnFailure {
     int maxAttempts() default 3;
     long delayMs() default 500;
-}
\ No newline at end of file
+
+    /** Factor applied to the delay after every failed attempt; 1 keeps it fixed. */
+    double multiplier() default 1.0;
+
+    /** Upper bound for the delay between two attempts. */
+    long maxDelayMs() default 30_000;
+
+    Jitter jitter() default Jitter.NONE;
+
+    /** Only these exceptions (or exceptions caused by them) are retried; empty means all. */
+    Class<? extends Throwable>[] includes() default {};
+
+    /** These exceptions (or exceptions caused by them) fail fast without retrying. */
+    Class<? extends Throwable>[] excludes() default {};
+
+    /**
+     * Randomisation of the backoff delay so that concurrent callers do not retry in lockstep.
+     */
+    enum Jitter {
+        /** Exactly the exponential delay. */
+        NONE,
+        /** Uniform between 0 and the exponential delay. */
+        FULL,
+        /** Half the exponential delay plus a uniform share of the other half. */
+        EQUAL,
+        /** Uniform between {@code delayMs} and three times the previous delay. */
+        DECORRELATED
+    }
+}
@@ -0,0 +1,24 @@
+package com.micr.crud.app.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the local listeners; subclasses decide how invalidations reach other nodes.
+ */
+public abstract class AbstractBookInvalidationBus implements BookInvalidationBus {
+
+    private final List<Consumer<BookInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void subscribe(Consumer<BookInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    protected void deliver(BookInvalidation invalidation) {
+        for (Consumer<BookInvalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+}
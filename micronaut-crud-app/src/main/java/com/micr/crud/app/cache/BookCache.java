@@ -0,0 +1,139 @@
+package com.micr.crud.app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.micr.crud.app.entity.Book;
+import io.micronaut.cache.SyncCache;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of books by id, backed by the {@code books} Caffeine cache configured
+ * under {@code micronaut.caches.books}. Only immutable {@link BookSnapshot}s are stored.
+ * <p>
+ * Writes are announced on the {@link BookInvalidationBus} so every node evicts the id.
+ * The latest invalidated version per id is remembered for {@code books.cache.invalidation.window}:
+ * an invalidation older than the cached snapshot is ignored, and a load that read a version
+ * older than one already invalidated is not cached.
+ */
+@Singleton
+public class BookCache {
+
+    public static final String NAME = "books";
+
+    private final Cache<Object, Object> cache;
+    private final Cache<Long, Long> invalidatedVersions;
+    private final BookInvalidationBus bus;
+
+    @Inject
+    public BookCache(@Named(NAME) SyncCache<Cache<Object, Object>> cache,
+                     BookInvalidationBus bus,
+                     InvalidationConfiguration config) {
+        this(cache.getNativeCache(), bus, config.getWindow());
+    }
+
+    public BookCache(Cache<Object, Object> cache, BookInvalidationBus bus, Duration window) {
+        this.cache = cache;
+        this.bus = bus;
+        this.invalidatedVersions = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        bus.subscribe(this::onInvalidation);
+    }
+
+    /**
+     * Returns the cached book or loads it with {@code loader}. Missing books are not cached.
+     */
+    public Optional<Book> get(Long id, Function<Long, Optional<Book>> loader) {
+        BookSnapshot snapshot = (BookSnapshot) cache.getIfPresent(id);
+        if (snapshot == null) {
+            Optional<Book> loaded = loader.apply(id);
+            loaded.ifPresent(book -> putUnlessSuperseded(id, book));
+            return loaded;
+        }
+        return Optional.of(snapshot.toBook());
+    }
+
+    /**
+     * Non-blocking {@link #get(Long, Function)}: a miss subscribes to {@code loader} and caches what it emits.
+     */
+    public Mono<Book> getAsync(Long id, Function<Long, Mono<Book>> loader) {
+        BookSnapshot snapshot = (BookSnapshot) cache.getIfPresent(id);
+        if (snapshot != null) {
+            return Mono.just(snapshot.toBook());
+        }
+        return loader.apply(id).doOnNext(book -> putUnlessSuperseded(id, book));
+    }
+
+    /**
+     * Evicts {@code book} on every node. Call after the write has committed. A write that did not
+     * report its version is taken to be one past the version cached here; only when nothing is
+     * cached is {@link BookInvalidation#ANY_VERSION} published, which keeps the id out of the
+     * caches for the invalidation window.
+     */
+    public void invalidate(Book book) {
+        if (book.getId() != null) {
+            Long version = book.getVersion() != null ? book.getVersion() : nextAfterCached(book.getId());
+            bus.publish(new BookInvalidation(book.getId(),
+                    version == null ? BookInvalidation.ANY_VERSION : version));
+        }
+    }
+
+    /**
+     * Evicts a deleted book on every node.
+     */
+    public void invalidate(Long id) {
+        if (id != null) {
+            bus.publish(BookInvalidation.deleted(id));
+        }
+    }
+
+    public BookCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new BookCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+
+    private void onInvalidation(BookInvalidation invalidation) {
+        Long id = invalidation.id();
+        invalidatedVersions.asMap().merge(id, invalidation.version(), Math::max);
+        // compute, not computeIfPresent: it also waits for a putUnlessSuperseded of this id in progress
+        cache.asMap().compute(id, (key, cached) -> {
+            if (cached == null) {
+                return null;
+            }
+            Long cachedVersion = ((BookSnapshot) cached).version();
+            // an invalidation for an older version than the cached one arrived out of order
+            boolean current = cachedVersion != null && cachedVersion >= invalidation.version();
+            return current ? cached : null;
+        });
+    }
+
+    // Checked and inserted in one compute: onInvalidation records the version before its own compute
+    // of the same key, so either it evicts this entry or this compute sees the invalidated version.
+    private void putUnlessSuperseded(Long id, Book book) {
+        cache.asMap().compute(id, (key, cached) ->
+                isSuperseded(id, book.getVersion()) ? cached : BookSnapshot.of(book));
+    }
+
+    private Long nextAfterCached(Long id) {
+        BookSnapshot cached = (BookSnapshot) cache.getIfPresent(id);
+        return cached == null || cached.version() == null ? null : cached.version() + 1;
+    }
+
+    private boolean isSuperseded(Long id, Long loadedVersion) {
+        Long invalidated = invalidatedVersions.getIfPresent(id);
+        if (invalidated == null) {
+            return false;
+        }
+        return loadedVersion == null || loadedVersion < invalidated;
+    }
+}
@@ -0,0 +1,7 @@
+package com.micr.crud.app.cache;
+
+import io.micronaut.serde.annotation.Serdeable;
+
+@Serdeable
+public record BookCacheStats(long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+}
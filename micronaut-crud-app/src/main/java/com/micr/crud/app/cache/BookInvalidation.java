@@ -0,0 +1,14 @@
+package com.micr.crud.app.cache;
+
+/**
+ * Tells every node that book {@code id} changed and is now at {@code version}.
+ * {@link #ANY_VERSION} is used for deletes and writes whose version is unknown.
+ */
+public record BookInvalidation(Long id, long version) {
+
+    public static final long ANY_VERSION = Long.MAX_VALUE;
+
+    public static BookInvalidation deleted(Long id) {
+        return new BookInvalidation(id, ANY_VERSION);
+    }
+}
@@ -0,0 +1,15 @@
+package com.micr.crud.app.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link BookInvalidation}s to every {@link BookCache} in the cluster, including
+ * the one on the publishing node. The transport is chosen with
+ * {@code books.cache.invalidation.transport}.
+ */
+public interface BookInvalidationBus {
+
+    void publish(BookInvalidation invalidation);
+
+    void subscribe(Consumer<BookInvalidation> listener);
+}
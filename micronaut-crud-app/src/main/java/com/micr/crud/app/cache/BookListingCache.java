@@ -0,0 +1,125 @@
+package com.micr.crud.app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micr.crud.app.config.BookConfiguration;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.json.JsonMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code GET /books} responses kept as the bytes that go on the wire: the JSON body, its gzip
+ * encoding and the ETag, so a hit costs no query, no serialization and no compression. Enabled
+ * when {@code books.listing-cache-size} is positive.
+ * <p>
+ * Entries are keyed by the request's {@link Query} and a catalog version that every invalidation on
+ * the {@link BookInvalidationBus} bumps, for local and remote writes alike. The version is read
+ * before the page is loaded, and invalidations are published after the write has committed, so a
+ * page loaded while a write commits is stored under a version that the write retires.
+ */
+@Singleton
+public class BookListingCache {
+
+    private final JsonMapper jsonMapper;
+    private final @Nullable Cache<Key, SerializedPage> pages;
+    private final AtomicLong version = new AtomicLong();
+
+    @Inject
+    public BookListingCache(JsonMapper jsonMapper, BookInvalidationBus bus, BookConfiguration config) {
+        this(jsonMapper, bus, config.getListingCacheSize());
+    }
+
+    public BookListingCache(JsonMapper jsonMapper, BookInvalidationBus bus, int maximumSize) {
+        this.jsonMapper = jsonMapper;
+        this.pages = maximumSize <= 0 ? null : Caffeine.newBuilder().maximumSize(maximumSize).build();
+        bus.subscribe(invalidation -> onInvalidation());
+    }
+
+    public boolean isEnabled() {
+        return pages != null;
+    }
+
+    /**
+     * Returns the cached page or builds it from {@code etag} and {@code body}, which are only
+     * called on a miss. Without a cache the page is built every time.
+     */
+    public SerializedPage get(Query query, Supplier<String> etag, Supplier<?> body) {
+        Key key = new Key(version.get(), query);
+        SerializedPage page = pages == null ? null : pages.getIfPresent(key);
+        if (page == null) {
+            page = serialize(etag.get(), body.get());
+            store(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Non-blocking {@link #get}: a miss subscribes to {@code etag} and {@code body}.
+     */
+    public Mono<SerializedPage> getAsync(Query query, Mono<String> etag, Mono<?> body) {
+        return Mono.defer(() -> {
+            Key key = new Key(version.get(), query);
+            SerializedPage page = pages == null ? null : pages.getIfPresent(key);
+            if (page != null) {
+                return Mono.just(page);
+            }
+            return Mono.zip(etag, body, this::serialize).doOnNext(loaded -> store(key, loaded));
+        });
+    }
+
+    public long size() {
+        return pages == null ? 0 : pages.estimatedSize();
+    }
+
+    private void store(Key key, SerializedPage page) {
+        // a page loaded under a retired version is never read again, and is evicted by size
+        if (pages != null && key.version() == version.get()) {
+            pages.put(key, page);
+        }
+    }
+
+    private void onInvalidation() {
+        version.incrementAndGet();
+        if (pages != null) {
+            pages.invalidateAll();
+        }
+    }
+
+    private SerializedPage serialize(String etag, Object body) {
+        try {
+            byte[] json = jsonMapper.writeValueAsBytes(body);
+            byte[] gzip = gzip(json);
+            // tiny bodies grow when compressed
+            return new SerializedPage(etag, json, gzip.length < json.length ? gzip : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The query parameters of a listing request; {@code after} is the cursor as sent.
+     */
+    public record Query(@Nullable String after, @Nullable Integer limit,
+                        @Nullable String author, @Nullable String titlePrefix) {
+    }
+
+    private record Key(long version, Query query) {
+    }
+}
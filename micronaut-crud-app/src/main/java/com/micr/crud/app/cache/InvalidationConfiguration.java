@@ -0,0 +1,29 @@
+package com.micr.crud.app.cache;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("books.cache.invalidation")
+public class InvalidationConfiguration {
+
+    public static final String TRANSPORT = "books.cache.invalidation.transport";
+
+    private String transport = "local";
+    private String group = "230.0.0.77";
+    private int port = 45677;
+    private int ttl = 1;
+    private Duration window = Duration.ofMinutes(1);
+
+    public String getTransport() { return transport; }
+    public void setTransport(String transport) { this.transport = transport; }
+    public String getGroup() { return group; }
+    public void setGroup(String group) { this.group = group; }
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    public int getTtl() { return ttl; }
+    public void setTtl(int ttl) { this.ttl = ttl; }
+    /** How long an invalidated version is remembered to reject stale loads and late messages. */
+    public Duration getWindow() { return window; }
+    public void setWindow(Duration window) { this.window = window; }
+}
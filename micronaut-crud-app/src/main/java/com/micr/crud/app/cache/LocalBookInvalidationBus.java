@@ -0,0 +1,17 @@
+package com.micr.crud.app.cache;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+/**
+ * In-JVM bus for single-node deployments; listeners are called on the publishing thread.
+ */
+@Singleton
+@Requires(property = InvalidationConfiguration.TRANSPORT, value = "local", defaultValue = "local")
+public class LocalBookInvalidationBus extends AbstractBookInvalidationBus {
+
+    @Override
+    public void publish(BookInvalidation invalidation) {
+        deliver(invalidation);
+    }
+}
@@ -0,0 +1,122 @@
+package com.micr.crud.app.cache;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.crac.OrderedResource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.crac.Context;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts invalidations to all instances in the same UDP multicast group. Several
+ * instances on one host can share the group, which makes the setup testable locally.
+ * Delivery is best effort; the cache TTL bounds staleness if a datagram is lost.
+ * <p>
+ * The socket leaves the group before a CRaC checkpoint and a new one joins after restore.
+ * Invalidations sent by other nodes in between are lost, which is the same as a dropped datagram.
+ * Each start has its own receiver thread, bound to its socket and generation, so the thread of a
+ * closed socket exits instead of reading from the next one.
+ */
+@Singleton
+@Requires(property = InvalidationConfiguration.TRANSPORT, value = "multicast")
+public class MulticastBookInvalidationBus extends AbstractBookInvalidationBus implements OrderedResource {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastBookInvalidationBus.class);
+    private static final int MESSAGE_SIZE = 3 * Long.BYTES;
+
+    private final InvalidationConfiguration config;
+    // lets a node skip its own datagrams, which it has already delivered locally
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile InetSocketAddress group;
+    private volatile MulticastSocket socket;
+
+    public MulticastBookInvalidationBus(InvalidationConfiguration config) {
+        this.config = config;
+    }
+
+    @PostConstruct
+    void start() {
+        MulticastSocket joined;
+        try {
+            group = new InetSocketAddress(InetAddress.getByName(config.getGroup()), config.getPort());
+            joined = new MulticastSocket(config.getPort());
+            joined.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            joined.setTimeToLive(config.getTtl());
+            joined.joinGroup(group, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot join invalidation group " + config.getGroup(), e);
+        }
+        long current = generation.incrementAndGet();
+        socket = joined;
+        Thread.ofPlatform().daemon().name("book-invalidation-receiver-" + current)
+                .start(() -> receive(joined, current));
+        log.info("Book cache invalidations use multicast group {}:{}", config.getGroup(), config.getPort());
+    }
+
+    @PreDestroy
+    void stop() {
+        generation.incrementAndGet();
+        socket.close();
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        stop();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        start();
+    }
+
+    @Override
+    public void publish(BookInvalidation invalidation) {
+        deliver(invalidation);
+        ByteBuffer message = ByteBuffer.allocate(MESSAGE_SIZE)
+                .putLong(nodeId)
+                .putLong(invalidation.id())
+                .putLong(invalidation.version());
+        try {
+            socket.send(new DatagramPacket(message.array(), MESSAGE_SIZE, group));
+        } catch (IOException e) {
+            log.warn("Failed to broadcast invalidation for book {}: {}", invalidation.id(), e.getMessage());
+        }
+    }
+
+    // exits once its socket is closed or a later start has replaced it
+    private void receive(MulticastSocket from, long started) {
+        byte[] buffer = new byte[MESSAGE_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, MESSAGE_SIZE);
+        while (generation.get() == started && !from.isClosed()) {
+            try {
+                from.receive(packet);
+                if (packet.getLength() != MESSAGE_SIZE) {
+                    continue;
+                }
+                ByteBuffer message = ByteBuffer.wrap(buffer);
+                if (message.getLong() != nodeId) {
+                    deliver(new BookInvalidation(message.getLong(), message.getLong()));
+                }
+            } catch (IOException e) {
+                if (generation.get() == started && !from.isClosed()) {
+                    log.warn("Failed to receive book invalidation: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
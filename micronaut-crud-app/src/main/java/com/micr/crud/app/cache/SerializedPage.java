@@ -0,0 +1,10 @@
+package com.micr.crud.app.cache;
+
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * A listing response ready to be written: its ETag, the JSON body and, when it is smaller, the
+ * gzip encoding of that body. The arrays are shared by every response and must not be modified.
+ */
+public record SerializedPage(String etag, byte[] json, @Nullable byte[] gzip) {
+}
@@ -0,0 +1,37 @@
+package com.micr.crud.app.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+@ConfigurationProperties("books")
+public class BookConfiguration {
+
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+    private int exportFetchSize = 500;
+    private int maxBatchSize = 1000;
+    private int searchMaxResults = 1000;
+    private int listingCacheSize = 0;
+    private int warmupIterations = 0;
+    private boolean checkpointAfterWarmup = false;
+
+    public int getDefaultPageSize() { return defaultPageSize; }
+    public void setDefaultPageSize(int defaultPageSize) { this.defaultPageSize = defaultPageSize; }
+    public int getMaxPageSize() { return maxPageSize; }
+    public void setMaxPageSize(int maxPageSize) { this.maxPageSize = maxPageSize; }
+    public int getExportFetchSize() { return exportFetchSize; }
+    public void setExportFetchSize(int exportFetchSize) { this.exportFetchSize = exportFetchSize; }
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+    /** Ranked search results reachable by paging; deeper pages are cut off. */
+    public int getSearchMaxResults() { return searchMaxResults; }
+    public void setSearchMaxResults(int searchMaxResults) { this.searchMaxResults = searchMaxResults; }
+    /** Listing responses kept serialized and compressed, see {@code BookListingCache}; 0 disables the cache. */
+    public int getListingCacheSize() { return listingCacheSize; }
+    public void setListingCacheSize(int listingCacheSize) { this.listingCacheSize = listingCacheSize; }
+    /** Rounds of requests sent through the controller once the server is up; 0 disables the warm-up. */
+    public int getWarmupIterations() { return warmupIterations; }
+    public void setWarmupIterations(int warmupIterations) { this.warmupIterations = warmupIterations; }
+    /** Takes a CRaC checkpoint after the warm-up; needs a CRaC JDK and {@code -XX:CRaCCheckpointTo}. */
+    public boolean isCheckpointAfterWarmup() { return checkpointAfterWarmup; }
+    public void setCheckpointAfterWarmup(boolean checkpointAfterWarmup) { this.checkpointAfterWarmup = checkpointAfterWarmup; }
+}
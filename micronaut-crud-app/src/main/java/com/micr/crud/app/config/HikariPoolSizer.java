@@ -0,0 +1,36 @@
+package com.micr.crud.app.config;
+
+import io.micronaut.configuration.jdbc.hikari.DatasourceConfiguration;
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import jakarta.inject.Singleton;
+
+/**
+ * Sizes every Hikari pool from the CPU count, {@code 2 * cores + 1}, unless
+ * {@code datasources.<name>.maximum-pool-size} is set. Handlers on virtual threads are not limited
+ * by a thread pool, so this pool is what bounds database concurrency: excess requests wait here
+ * for up to {@code connection-timeout}.
+ */
+@Singleton
+public class HikariPoolSizer implements BeanCreatedEventListener<DatasourceConfiguration> {
+
+    private final Environment environment;
+
+    public HikariPoolSizer(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public DatasourceConfiguration onCreated(BeanCreatedEvent<DatasourceConfiguration> event) {
+        DatasourceConfiguration config = event.getBean();
+        if (!environment.containsProperty("datasources." + config.getName() + ".maximum-pool-size")) {
+            config.setMaximumPoolSize(poolSize(Runtime.getRuntime().availableProcessors()));
+        }
+        return config;
+    }
+
+    public static int poolSize(int processors) {
+        return processors * 2 + 1;
+    }
+}
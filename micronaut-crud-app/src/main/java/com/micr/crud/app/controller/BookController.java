@@ -1,43 +1,238 @@
 package com.micr.crud.app.controller;
 
+import com.micr.crud.app.cache.BookCacheStats;
+import com.micr.crud.app.cache.BookListingCache;
+import com.micr.crud.app.cache.SerializedPage;
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.CatalogVersion;
+import com.micr.crud.app.dto.TitleCursor;
 import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.ingest.BookIngestQueue;
+import com.micr.crud.app.ingest.IngestStatus;
+import com.micr.crud.app.search.SearchField;
 import com.micr.crud.app.service.BookService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Every handler blocks on JDBC (through Hibernate or {@code books.persistence=jdbc}), so they run
+ * on the {@code blocking} executor rather than the Netty event loop. On Java 21 that executor starts
+ * a virtual thread per request; set {@code micronaut.executors.blocking.*} to use a platform thread
+ * pool instead.
+ * <p>
+ * With {@code books.persistence=r2dbc} this controller is replaced by {@link ReactiveBookController}.
+ */
 @Controller("/books")
+@Requires(property = "books.persistence", notEquals = "r2dbc")
+@ExecuteOn(TaskExecutors.BLOCKING)
 public class BookController {
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final BookService service;
+    private final JsonMapper jsonMapper;
+    private final BookListingCache listingCache;
+    private final @Nullable BookIngestQueue ingest;
 
-    public BookController(BookService service) {
+    public BookController(BookService service, JsonMapper jsonMapper, BookListingCache listingCache,
+                          @Nullable BookIngestQueue ingest) {
         this.service = service;
+        this.jsonMapper = jsonMapper;
+        this.listingCache = listingCache;
+        this.ingest = ingest;
     }
 
+    /**
+     * Without query parameters this returns the whole catalog. With {@code after} and/or
+     * {@code limit} it returns a {@link com.micr.crud.app.dto.BookPage} whose
+     * {@code nextCursor} is passed back as {@code after} to fetch the following page.
+     * {@code author} (exact match) or {@code titlePrefix} narrow the pages to matching books; title
+     * matches are ordered by title instead of id.
+     * <p>
+     * Every variant carries the {@link CatalogVersion} as its ETag. It is read before the books, so
+     * a matching {@code If-None-Match} is answered with 304 without reading them.
+     * <p>
+     * With {@code books.listing-cache-size} set, responses come from the {@link BookListingCache}
+     * instead: a hit is answered from memory, already serialized and compressed, ETag included.
+     */
     @Get
-    public List<Book> list() {
-        return service.findAll();
+    public HttpResponse<?> list(@Nullable @QueryValue String after, @Nullable @QueryValue Integer limit,
+                                @Nullable @QueryValue String author, @Nullable @QueryValue String titlePrefix,
+                                HttpRequest<?> request) {
+        if (author != null && titlePrefix != null) {
+            return HttpResponse.badRequest("Filter by author or by titlePrefix, not both");
+        }
+        Long afterId;
+        TitleCursor afterTitle;
+        try {
+            afterId = titlePrefix == null ? BookCursor.decode(after) : null;
+            afterTitle = titlePrefix != null ? TitleCursor.decode(after, titlePrefix) : null;
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+        if (listingCache.isEnabled()) {
+            SerializedPage page = listingCache.get(new BookListingCache.Query(after, limit, author, titlePrefix),
+                    () -> ConditionalRequests.etag(service.catalogVersion()),
+                    () -> listing(after, afterId, afterTitle, limit, author, titlePrefix));
+            if (ConditionalRequests.isNotModified(request, page.etag(), null)) {
+                return ConditionalRequests.withValidators(HttpResponse.notModified(), page.etag(), null);
+            }
+            return SerializedResponses.ok(page, request);
+        }
+        String etag = ConditionalRequests.etag(service.catalogVersion());
+        if (ConditionalRequests.isNotModified(request, etag, null)) {
+            return ConditionalRequests.withValidators(HttpResponse.notModified(), etag, null);
+        }
+        Object body = listing(after, afterId, afterTitle, limit, author, titlePrefix);
+        return ConditionalRequests.withValidators(HttpResponse.ok(body), etag, null);
+    }
+
+    @Get("/count")
+    public long countByAuthor(@QueryValue String author) {
+        return service.countByAuthor(author);
+    }
+
+    /**
+     * Streams the whole catalog as newline-delimited JSON with chunked transfer encoding.
+     * Rows are pulled from the database batch by batch on the bounded elastic scheduler,
+     * so memory stays flat and the first row is sent before the last one is read.
+     */
+    @Get(value = "/export", produces = APPLICATION_NDJSON)
+    public Publisher<byte[]> export() {
+        return Flux.fromStream(service::streamAll)
+                .map(this::toJsonLine)
+                .subscribeOn(Schedulers.boundedElastic());
     }
 
+    /**
+     * Ranked search over titles and authors. Every word of {@code q} must match a word of the book,
+     * or the start of one; {@code field} limits the search to {@code title} or {@code author}. Pages
+     * are passed on with {@code nextCursor} as {@code after}, like {@link #list}.
+     */
+    @Get("/search")
+    public HttpResponse<?> search(@QueryValue String q, @Nullable @QueryValue String field,
+                                  @Nullable @QueryValue String after, @Nullable @QueryValue Integer limit) {
+        try {
+            SearchField searchField = field == null ? null : SearchField.parse(field);
+            return HttpResponse.ok(service.search(q, searchField, BookCursor.decode(after), limit));
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+    }
+
+    @Get("/cache/stats")
+    public BookCacheStats cacheStats() {
+        return service.cacheStats();
+    }
+
+    /**
+     * Served from the cache when possible. The ETag is the book's version and {@code Last-Modified}
+     * its {@code updatedAt}; when the client's copy is current the answer is a bodiless 304.
+     */
     @Get("/{id}")
-    public HttpResponse<Book> get(Long id) {
-        Optional<Book> book = service.findById(id);
-        return book.map(HttpResponse::ok)
-                .orElse(HttpResponse.notFound());
+    public HttpResponse<Book> get(Long id, HttpRequest<?> request) {
+        Optional<Book> found = service.findById(id);
+        if (found.isEmpty()) {
+            return HttpResponse.notFound();
+        }
+        Book book = found.get();
+        String etag = ConditionalRequests.etag(book);
+        if (ConditionalRequests.isNotModified(request, etag, book.getUpdatedAt())) {
+            return ConditionalRequests.withValidators(HttpResponse.notModified(), etag, book.getUpdatedAt());
+        }
+        return ConditionalRequests.withValidators(HttpResponse.ok(book), etag, book.getUpdatedAt());
     }
 
+    /**
+     * Commits the book as a new one and answers 201 with it; an id, version or timestamp in the body
+     * is ignored. With {@code books.ingest.enabled} the book is only queued: the answer is 202 with
+     * its {@link IngestStatus}, whose tracking id is looked up at {@code /books/ingest/{trackingId}},
+     * or 429 when the queue is full.
+     */
     @Post
-    public HttpResponse<Book> create(@Body Book book) {
+    public HttpResponse<?> create(@Body Book body) {
+        Book book = body.asNew();
+        if (ingest != null) {
+            return ingest.submit(book)
+                    .<HttpResponse<?>>map(status -> HttpResponse.accepted(URI.create("/books/ingest/" + status.trackingId()))
+                            .body(status))
+                    .orElseGet(() -> HttpResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .body("Ingest queue is full"));
+        }
         Book saved = service.save(book);
         return HttpResponse.created(saved).body(saved);
     }
 
+    @Get("/ingest/{trackingId}")
+    public HttpResponse<IngestStatus> ingestStatus(String trackingId) {
+        Optional<IngestStatus> status = ingest == null ? Optional.empty() : ingest.status(trackingId);
+        return status.<HttpResponse<IngestStatus>>map(HttpResponse::ok).orElseGet(HttpResponse::notFound);
+    }
+
+    @Post("/batch")
+    public HttpResponse<?> createAll(@Body List<Book> books) {
+        try {
+            return HttpResponse.created(service.saveAll(books.stream().map(Book::asNew).toList()));
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+    }
+
     @Delete("/{id}")
     public HttpResponse<?> delete(Long id) {
         service.delete(id);
         return HttpResponse.noContent();
     }
+
+    @Delete
+    public HttpResponse<?> deleteAll(@QueryValue List<Long> ids) {
+        try {
+            service.deleteAll(ids);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+        return HttpResponse.noContent();
+    }
+
+    private Object listing(@Nullable String after, Long afterId, @Nullable TitleCursor afterTitle,
+                           @Nullable Integer limit, @Nullable String author, @Nullable String titlePrefix) {
+        if (after == null && limit == null && author == null && titlePrefix == null) {
+            return service.findAll();
+        } else if (author != null) {
+            return service.findByAuthor(author, afterId, limit);
+        } else if (titlePrefix != null) {
+            return service.findByTitlePrefix(titlePrefix, afterTitle, limit);
+        }
+        return service.findPage(afterId, limit);
+    }
+
+    private byte[] toJsonLine(Book book) {
+        try {
+            byte[] json = jsonMapper.writeValueAsBytes(book);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.micr.crud.app.controller;
+
+import com.micr.crud.app.dto.CatalogVersion;
+import com.micr.crud.app.entity.Book;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Conditional GET for the book endpoints (RFC 9110, section 13). Strong ETags are built from
+ * versions, so a request is answered with {@code 304 Not Modified} before any body is serialized.
+ * {@code If-None-Match} wins over {@code If-Modified-Since} when a request carries both.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {}
+
+    /**
+     * {@code "id.version"}, or null for a book that was never written through a repository.
+     */
+    public static @Nullable String etag(Book book) {
+        return book.getVersion() == null ? null : quote(book.getId() + "." + book.getVersion());
+    }
+
+    public static String etag(CatalogVersion version) {
+        Instant last = version.lastUpdated();
+        return quote(version.count() + "-" + (last == null ? "0" : last.getEpochSecond() + "." + last.getNano()));
+    }
+
+    /**
+     * Whether the client's copy, identified by the request's validators, is still current.
+     */
+    public static boolean isNotModified(HttpRequest<?> request, @Nullable String etag, @Nullable Instant lastModified) {
+        HttpHeaders headers = request.getHeaders();
+        if (headers.contains(HttpHeaders.IF_NONE_MATCH)) {
+            return etag != null && headers.getAll(HttpHeaders.IF_NONE_MATCH).stream()
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .map(String::trim)
+                    .anyMatch(tag -> tag.equals("*") || weak(tag).equals(weak(etag)));
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        Optional<ZonedDateTime> since = headers.findDate(HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have whole seconds
+        return since.isPresent() && !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since.get().toInstant());
+    }
+
+    /**
+     * Adds the {@code ETag} and {@code Last-Modified} headers that are not null.
+     */
+    public static <T> MutableHttpResponse<T> withValidators(MutableHttpResponse<T> response, @Nullable String etag,
+                                                            @Nullable Instant lastModified) {
+        if (etag != null) {
+            response.header(HttpHeaders.ETAG, etag);
+        }
+        if (lastModified != null) {
+            response.getHeaders().lastModified(lastModified.toEpochMilli());
+        }
+        return response;
+    }
+
+    private static String quote(String tag) {
+        return '"' + tag + '"';
+    }
+
+    // If-None-Match uses the weak comparison: W/"x" and "x" match
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
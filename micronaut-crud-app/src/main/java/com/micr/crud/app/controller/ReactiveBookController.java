@@ -0,0 +1,161 @@
+package com.micr.crud.app.controller;
+
+import com.micr.crud.app.cache.BookCacheStats;
+import com.micr.crud.app.cache.BookListingCache;
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.TitleCursor;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.search.SearchField;
+import com.micr.crud.app.service.ReactiveBookService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.*;
+import io.micronaut.json.JsonMapper;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code /books} API of {@link BookController} over R2DBC, enabled with
+ * {@code books.persistence=r2dbc}. Handlers return publishers and run on the Netty event loop;
+ * no request holds a thread while it waits for the database.
+ */
+@Controller("/books")
+@Requires(property = "books.persistence", value = "r2dbc")
+public class ReactiveBookController {
+
+    private final ReactiveBookService service;
+    private final JsonMapper jsonMapper;
+    private final BookListingCache listingCache;
+
+    public ReactiveBookController(ReactiveBookService service, JsonMapper jsonMapper, BookListingCache listingCache) {
+        this.service = service;
+        this.jsonMapper = jsonMapper;
+        this.listingCache = listingCache;
+    }
+
+    /**
+     * See {@link BookController#list}, including the ETag, the 304 answer and the {@link BookListingCache}.
+     */
+    @Get
+    public Mono<HttpResponse<?>> list(@Nullable @QueryValue String after, @Nullable @QueryValue Integer limit,
+                                      @Nullable @QueryValue String author, @Nullable @QueryValue String titlePrefix,
+                                      HttpRequest<?> request) {
+        if (author != null && titlePrefix != null) {
+            return Mono.just(HttpResponse.badRequest("Filter by author or by titlePrefix, not both"));
+        }
+        Long afterId;
+        TitleCursor afterTitle;
+        try {
+            afterId = titlePrefix == null ? BookCursor.decode(after) : null;
+            afterTitle = titlePrefix != null ? TitleCursor.decode(after, titlePrefix) : null;
+        } catch (IllegalArgumentException e) {
+            return Mono.just(HttpResponse.badRequest(e.getMessage()));
+        }
+        if (listingCache.isEnabled()) {
+            return listingCache.getAsync(new BookListingCache.Query(after, limit, author, titlePrefix),
+                            service.catalogVersion().map(ConditionalRequests::etag),
+                            listing(after, afterId, afterTitle, limit, author, titlePrefix))
+                    .<HttpResponse<?>>map(page -> ConditionalRequests.isNotModified(request, page.etag(), null)
+                            ? ConditionalRequests.withValidators(HttpResponse.notModified(), page.etag(), null)
+                            : SerializedResponses.ok(page, request));
+        }
+        return service.catalogVersion().map(ConditionalRequests::etag).flatMap(etag -> {
+            if (ConditionalRequests.isNotModified(request, etag, null)) {
+                return Mono.just(ConditionalRequests.withValidators(HttpResponse.notModified(), etag, null));
+            }
+            return listing(after, afterId, afterTitle, limit, author, titlePrefix)
+                    .<HttpResponse<?>>map(body -> ConditionalRequests.withValidators(HttpResponse.ok(body), etag, null));
+        });
+    }
+
+    @Get("/count")
+    public Mono<Long> countByAuthor(@QueryValue String author) {
+        return service.countByAuthor(author);
+    }
+
+    @Get(value = "/export", produces = BookController.APPLICATION_NDJSON)
+    public Publisher<byte[]> export() {
+        return service.streamAll().map(this::toJsonLine);
+    }
+
+    @Get("/search")
+    public HttpResponse<?> search(@QueryValue String q, @Nullable @QueryValue String field,
+                                  @Nullable @QueryValue String after, @Nullable @QueryValue Integer limit) {
+        try {
+            SearchField searchField = field == null ? null : SearchField.parse(field);
+            return HttpResponse.ok(service.search(q, searchField, BookCursor.decode(after), limit));
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest(e.getMessage());
+        }
+    }
+
+    @Get("/cache/stats")
+    public BookCacheStats cacheStats() {
+        return service.cacheStats();
+    }
+
+    @Get("/{id}")
+    public Mono<HttpResponse<Book>> get(Long id, HttpRequest<?> request) {
+        return service.findById(id)
+                .<HttpResponse<Book>>map(book -> {
+                    String etag = ConditionalRequests.etag(book);
+                    if (ConditionalRequests.isNotModified(request, etag, book.getUpdatedAt())) {
+                        return ConditionalRequests.withValidators(HttpResponse.notModified(), etag, book.getUpdatedAt());
+                    }
+                    return ConditionalRequests.withValidators(HttpResponse.ok(book), etag, book.getUpdatedAt());
+                })
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Post
+    public Mono<HttpResponse<Book>> create(@Body Book book) {
+        return service.save(book.asNew()).<HttpResponse<Book>>map(saved -> HttpResponse.created(saved).body(saved));
+    }
+
+    @Post("/batch")
+    public Mono<HttpResponse<?>> createAll(@Body List<Book> books) {
+        return service.saveAll(books.stream().map(Book::asNew).toList())
+                .<HttpResponse<?>>map(HttpResponse::created)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(HttpResponse.badRequest(e.getMessage())));
+    }
+
+    @Delete("/{id}")
+    public Mono<HttpResponse<?>> delete(Long id) {
+        return service.delete(id).<HttpResponse<?>>thenReturn(HttpResponse.noContent());
+    }
+
+    @Delete
+    public Mono<HttpResponse<?>> deleteAll(@QueryValue List<Long> ids) {
+        return service.deleteAll(ids)
+                .<HttpResponse<?>>thenReturn(HttpResponse.noContent())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(HttpResponse.badRequest(e.getMessage())));
+    }
+
+    // lazy: nothing is queried until the returned Mono is subscribed to
+    private Mono<?> listing(@Nullable String after, Long afterId, @Nullable TitleCursor afterTitle,
+                            @Nullable Integer limit, @Nullable String author, @Nullable String titlePrefix) {
+        return after == null && limit == null && author == null && titlePrefix == null
+                ? service.findAll().collectList()
+                : author != null ? service.findByAuthor(author, afterId, limit)
+                : titlePrefix != null ? service.findByTitlePrefix(titlePrefix, afterTitle, limit)
+                : service.findPage(afterId, limit);
+    }
+
+    private byte[] toJsonLine(Book book) {
+        try {
+            byte[] json = jsonMapper.writeValueAsBytes(book);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.micr.crud.app.controller;
+
+import com.micr.crud.app.cache.SerializedPage;
+import com.micr.example.common.http.AcceptEncoding;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+
+/**
+ * Sends a {@link SerializedPage} as it is stored: its gzip encoding when the client accepts gzip,
+ * the JSON otherwise. Netty's compression leaves a response alone once it has a
+ * {@code Content-Encoding}, so nothing is encoded twice. The ETag is the same for both encodings,
+ * as it is when Netty compresses a response itself.
+ */
+public final class SerializedResponses {
+
+    private SerializedResponses() {}
+
+    public static MutableHttpResponse<byte[]> ok(SerializedPage page, HttpRequest<?> request) {
+        boolean gzip = page.gzip() != null && acceptsGzip(request);
+        MutableHttpResponse<byte[]> response = HttpResponse.ok(gzip ? page.gzip() : page.json())
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ConditionalRequests.withValidators(response, page.etag(), null);
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip (see {@link AcceptEncoding#acceptsGzip}).
+     */
+    public static boolean acceptsGzip(HttpRequest<?> request) {
+        return AcceptEncoding.acceptsGzip(request.getHeaders().getAll(HttpHeaders.ACCEPT_ENCODING));
+    }
+}
@@ -0,0 +1,112 @@
+package com.micr.crud.app.crac;
+
+import com.micr.crud.app.config.BookConfiguration;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.type.Argument;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.inject.Singleton;
+import org.crac.Core;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Sends {@code books.warmup-iterations} rounds of requests through every {@link
+ * com.micr.crud.app.controller.BookController} path over real HTTP once the server is up, so the
+ * JIT has compiled routing, serde, the service and the repository before the first client
+ * request. Each round deletes the books it created. With {@code books.checkpoint-after-warmup} the
+ * warmed-up process is then saved as a CRaC checkpoint; restoring it skips both startup and
+ * warm-up.
+ */
+@Singleton
+public class BookWarmup implements ApplicationEventListener<ServerStartupEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWarmup.class);
+    private static final Argument<Map<String, Object>> BOOK = Argument.mapOf(String.class, Object.class);
+
+    private final BookConfiguration config;
+    private final JsonMapper jsonMapper;
+
+    public BookWarmup(BookConfiguration config, JsonMapper jsonMapper) {
+        this.config = config;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public void onApplicationEvent(ServerStartupEvent event) {
+        if (config.getWarmupIterations() > 0) {
+            URI books = event.getSource().getURI().resolve("/books");
+            long start = System.nanoTime();
+            int requests = warmUp(books, config.getWarmupIterations());
+            log.info("Warmed up with {} requests in {} ms", requests, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (config.isCheckpointAfterWarmup()) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Runs the given number of rounds against {@code books} and returns the number of requests
+     * sent. The HTTP client is closed before returning, since its sockets would block a checkpoint.
+     */
+    public int warmUp(URI books, int iterations) {
+        int requests = 0;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int i = 0; i < iterations; i++) {
+                Map<String, Object> created = jsonMapper.readValue(
+                        send(client, post(books, "{\"title\":\"warm-up " + i + "\",\"author\":\"warm-up\"}")), BOOK);
+                long id = ((Number) created.get("id")).longValue();
+                send(client, HttpRequest.newBuilder(books.resolve("/books/" + id)).GET().build());
+                send(client, HttpRequest.newBuilder(URI.create(books + "?limit=20")).GET().build());
+                List<Map<String, Object>> batch = jsonMapper.readValue(send(client, post(URI.create(books + "/batch"),
+                        "[{\"title\":\"warm-up a\",\"author\":\"warm-up\"},{\"title\":\"warm-up b\",\"author\":\"warm-up\"}]")),
+                        Argument.listOf(BOOK));
+                String ids = batch.stream().map(book -> book.get("id").toString()).collect(Collectors.joining(","));
+                send(client, HttpRequest.newBuilder(URI.create(books + "?ids=" + ids)).DELETE().build());
+                send(client, HttpRequest.newBuilder(books.resolve("/books/" + id)).DELETE().build());
+                requests += 6;
+            }
+        } catch (IOException e) {
+            log.warn("Warm-up stopped after {} requests: {}", requests, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return requests;
+    }
+
+    private static HttpRequest post(URI uri, String json) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static byte[] send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 300) {
+            throw new IOException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static void checkpoint() {
+        try {
+            log.info("Taking CRaC checkpoint");
+            Core.checkpointRestore();
+            log.info("Restored from CRaC checkpoint");
+        } catch (UnsupportedOperationException e) {
+            log.warn("This JVM does not support CRaC, no checkpoint taken");
+        } catch (Exception e) {
+            log.warn("CRaC checkpoint failed, continuing without: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.micr.crud.app.crac;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micronaut.crac.OrderedResource;
+import jakarta.inject.Singleton;
+import org.crac.Context;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closes every Hikari connection before a CRaC checkpoint, since open sockets and file handles
+ * cannot be saved in the image, and lets the pool reconnect after restore. The pool is suspended
+ * first so nothing opens a new connection while idle ones are evicted and in-use ones are awaited
+ * (up to {@code connection-timeout}). The in-memory H2 database keeps its data with no connection
+ * open because the URL sets {@code DB_CLOSE_DELAY=-1}.
+ * <p>
+ * Suspending needs {@code datasources.<name>.allow-pool-suspension=true}; micronaut-crac registers
+ * this bean and stops the HTTP server itself.
+ */
+@Singleton
+public class HikariCracResource implements OrderedResource {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariCracResource.class);
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    public HikariCracResource(List<DataSource> dataSources) throws SQLException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                pools.add(dataSource.unwrap(HikariDataSource.class));
+            }
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean == null) {
+                continue; // never started
+            }
+            bean.suspendPool();
+            bean.softEvictConnections();
+            long deadline = System.nanoTime() + pool.getConnectionTimeout() * 1_000_000;
+            while (bean.getTotalConnections() > 0) {
+                if (System.nanoTime() > deadline) {
+                    bean.resumePool();
+                    throw new IllegalStateException(pool.getPoolName() + " still has "
+                            + bean.getActiveConnections() + " connections in use, cannot checkpoint");
+                }
+                Thread.sleep(10);
+            }
+            log.info("Closed all connections of {} for checkpoint", pool.getPoolName());
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean != null) {
+                bean.resumePool();
+            }
+        }
+    }
+}
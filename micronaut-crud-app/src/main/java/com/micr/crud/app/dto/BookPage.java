@@ -0,0 +1,15 @@
+package com.micr.crud.app.dto;
+
+import com.micr.crud.app.entity.Book;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.List;
+
+/**
+ * One page of books, in id order, by title for a title prefix, or by rank for a search.
+ * {@code nextCursor} is null on the last page.
+ */
+@Serdeable
+public record BookPage(List<Book> items, @Nullable String nextCursor) {
+}
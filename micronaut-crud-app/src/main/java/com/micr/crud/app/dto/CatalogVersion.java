@@ -0,0 +1,13 @@
+package com.micr.crud.app.dto;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Cheap fingerprint of the whole {@code books} table: inserts and deletes change the count, and
+ * every write moves {@code lastUpdated} forward. It relies on the writers' clocks, which set
+ * {@code updatedAt}, moving forward together. {@code lastUpdated} is null for an empty table.
+ */
+public record CatalogVersion(long count, @Nullable Instant lastUpdated) {
+}
@@ -1,19 +1,38 @@
 package com.micr.crud.app.entity;
 
+import io.micronaut.core.annotation.Creator;
+import io.micronaut.data.annotation.DateUpdated;
 import io.micronaut.serde.annotation.Serdeable;
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Serdeable
 @Entity
-@Table(name = "books")
+// id completes both indexes so their lookups come back in page order without a sort
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_author", columnList = "author, id"),
+        @Index(name = "idx_books_title", columnList = "title, id"),
+        @Index(name = "idx_books_updated_at", columnList = "updated_at")
+})
 public class Book {
+    // sequence ids (pooled optimizer) so Hibernate can batch inserts; IDENTITY disables batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     private String title;
     private String author;
 
+    @Version
+    private Long version;
+
+    // set by Micronaut Data on every insert and update, through Hibernate as well as JDBC and R2DBC
+    @DateUpdated
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     public Book() {}
 
     public Book(String title, String author) {
@@ -27,10 +46,34 @@ public class Book {
         this.author = author;
     }
 
+    public Book(Long id, String title, String author, Long version) {
+        this(id, title, author);
+        this.version = version;
+    }
+
+    // Micronaut Data JDBC copies the entity through this constructor to set the generated id, version
+    // and timestamp; request bodies go through asNew() so they cannot choose them
+    @Creator
+    public Book(Long id, String title, String author, Long version, Instant updatedAt) {
+        this(id, title, author, version);
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * The book a create request asks for: its title and author only, since the id, version and
+     * timestamp are assigned when it is saved. A client-supplied id would make Hibernate persist a
+     * detached entity.
+     */
+    public Book asNew() {
+        return new Book(title, author);
+    }
+
     // getters/setters
     public Long getId() { return id; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
+    public Long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
 }
\ No newline at end of file
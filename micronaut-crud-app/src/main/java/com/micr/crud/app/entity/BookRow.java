@@ -0,0 +1,39 @@
+package com.micr.crud.app.entity;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.annotation.DateUpdated;
+import io.micronaut.data.annotation.GeneratedValue;
+import io.micronaut.data.annotation.Id;
+import io.micronaut.data.annotation.Index;
+import io.micronaut.data.annotation.Indexes;
+import io.micronaut.data.annotation.MappedEntity;
+import io.micronaut.data.annotation.Version;
+
+import java.time.Instant;
+
+/**
+ * The {@code books} table as mapped by the R2DBC repository. {@link Book} stays the JPA entity and
+ * the API model; ids come from the same {@code books_seq} sequence, so both paths can share a database.
+ * In the {@code r2dbc} environment Micronaut Data creates the table, its indexes and the sequence from
+ * this mapping, so the indexes repeat those of {@link Book}.
+ */
+@MappedEntity("books")
+@Indexes({
+        @Index(name = "idx_books_author", columns = {"author", "id"}),
+        @Index(name = "idx_books_title", columns = {"title", "id"}),
+        @Index(name = "idx_books_updated_at", columns = {"updated_at"})
+})
+public record BookRow(@Id @GeneratedValue(value = GeneratedValue.Type.SEQUENCE, ref = "books_seq") @Nullable Long id,
+                      String title,
+                      String author,
+                      @Version @Nullable Long version,
+                      @DateUpdated @Nullable Instant updatedAt) {
+
+    public static BookRow of(Book book) {
+        return new BookRow(book.getId(), book.getTitle(), book.getAuthor(), book.getVersion(), book.getUpdatedAt());
+    }
+
+    public Book toBook() {
+        return new Book(id, title, author, version, updatedAt);
+    }
+}
@@ -0,0 +1,123 @@
+package com.micr.crud.app.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micr.crud.app.config.BookConfiguration;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.service.BookService;
+import com.micr.example.common.ingest.IngestQueue;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Write-behind for {@code POST /books} ({@code books.ingest.enabled}), on the shared
+ * {@link IngestQueue}. A request returns a tracking id once the book is in the ingest log, without
+ * taking a lock or touching the database; a writer thread commits up to
+ * {@code books.ingest.batch-size} books per transaction through {@link BookService#saveAll}, so a
+ * burst costs one commit per batch instead of one per book, and no request waits for a connection.
+ * Books left in the log by the previous run are committed at startup, before the server takes
+ * requests.
+ */
+@Singleton
+@Requires(property = IngestConfiguration.ENABLED, value = "true")
+@Requires(property = "books.persistence", notEquals = "r2dbc")
+public class BookIngestQueue extends IngestQueue<Book> {
+
+    private final BookService service;
+    private final JsonMapper jsonMapper;
+    private final Cache<String, IngestStatus> statuses;
+
+    public BookIngestQueue(BookService service, JsonMapper jsonMapper, BookConfiguration books, IngestConfiguration config) {
+        super("book-ingest", new Options(config.getCapacity(), Math.min(config.getBatchSize(), books.getMaxBatchSize()),
+                Path.of(config.getLogPath()), config.getLogSegmentBytes(), config.isFsync(),
+                config.getRetryDelay(), config.getRetryMaxDelay()));
+        this.service = service;
+        this.jsonMapper = jsonMapper;
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(config.getStatusRetention())
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @EventListener
+    void onStartup(StartupEvent event) {
+        start();
+    }
+
+    @PreDestroy
+    @Override
+    public void stop() throws InterruptedException, IOException {
+        super.stop();
+    }
+
+    /**
+     * Queues {@code book} and returns its {@code QUEUED} status, or empty when the queue is full.
+     *
+     * @throws IllegalStateException when the queue has been stopped
+     * @throws UncheckedIOException when the book cannot be written to the log
+     */
+    public Optional<IngestStatus> submit(Book book) {
+        String id = UUID.randomUUID().toString();
+        IngestStatus queued = IngestStatus.queued(id);
+        // before the writer can report the book saved
+        statuses.put(id, queued);
+        boolean accepted = false;
+        try {
+            accepted = enqueue(id, book);
+        } finally {
+            if (!accepted) {
+                statuses.invalidate(id);
+            }
+        }
+        return accepted ? Optional.of(queued) : Optional.empty();
+    }
+
+    public Optional<IngestStatus> status(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    protected byte[] serialize(Book book) throws IOException {
+        return jsonMapper.writeValueAsBytes(book);
+    }
+
+    @Override
+    protected Book deserialize(String json) throws IOException {
+        return jsonMapper.readValue(json, Book.class);
+    }
+
+    @Override
+    protected void saveAll(List<Tracked<Book>> batch) {
+        List<Book> saved = service.saveAll(batch.stream().map(Tracked::item).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            String id = batch.get(i).trackingId();
+            statuses.put(id, IngestStatus.saved(id, saved.get(i).getId()));
+        }
+    }
+
+    @Override
+    protected void save(Tracked<Book> book) {
+        statuses.put(book.trackingId(), IngestStatus.saved(book.trackingId(), service.save(book.item()).getId()));
+    }
+
+    @Override
+    protected void failed(Tracked<Book> book, RuntimeException failure) {
+        statuses.put(book.trackingId(), IngestStatus.failed(book.trackingId(), String.valueOf(failure.getMessage())));
+    }
+
+    @Override
+    protected Book fresh(Book book) {
+        return book.asNew();
+    }
+}
@@ -0,0 +1,48 @@
+package com.micr.crud.app.ingest;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("books.ingest")
+public class IngestConfiguration {
+
+    public static final String ENABLED = "books.ingest.enabled";
+
+    private boolean enabled = false;
+    private int capacity = 8192;
+    private int batchSize = 500;
+    private String logPath = "book-ingest.log";
+    private long logSegmentBytes = 16 * 1024 * 1024;
+    private boolean fsync = false;
+    private Duration retryDelay = Duration.ofMillis(100);
+    private Duration retryMaxDelay = Duration.ofSeconds(30);
+    private Duration statusRetention = Duration.ofMinutes(10);
+
+    /** Makes {@code POST /books} queue the book and answer 202 instead of committing it. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    /** Books accepted and not committed yet; rounded up to a power of two. A full queue answers 429. */
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+    /** Most books committed in one transaction; at most {@code books.max-batch-size}. */
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public String getLogPath() { return logPath; }
+    public void setLogPath(String logPath) { this.logPath = logPath; }
+    /** Size at which the log starts a new segment; a segment is deleted once its books are committed. */
+    public long getLogSegmentBytes() { return logSegmentBytes; }
+    public void setLogSegmentBytes(long logSegmentBytes) { this.logSegmentBytes = logSegmentBytes; }
+    /** Forces every log write to the disk; one flush covers all the books it appends. */
+    public boolean isFsync() { return fsync; }
+    public void setFsync(boolean fsync) { this.fsync = fsync; }
+    /** Delay before books that failed because of the database are retried; doubles on every failure. */
+    public Duration getRetryDelay() { return retryDelay; }
+    public void setRetryDelay(Duration retryDelay) { this.retryDelay = retryDelay; }
+    /** Upper bound for {@code retry-delay}. */
+    public Duration getRetryMaxDelay() { return retryMaxDelay; }
+    public void setRetryMaxDelay(Duration retryMaxDelay) { this.retryMaxDelay = retryMaxDelay; }
+    /** How long the status of a saved or failed book can be looked up. */
+    public Duration getStatusRetention() { return statusRetention; }
+    public void setStatusRetention(Duration statusRetention) { this.statusRetention = statusRetention; }
+}
@@ -0,0 +1,26 @@
+package com.micr.crud.app.ingest;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Where a book sent to the {@link BookIngestQueue} stands. {@code bookId} is set once it is
+ * {@code SAVED}, {@code error} when it {@code FAILED}.
+ */
+@Serdeable
+public record IngestStatus(String trackingId, State state, @Nullable Long bookId, @Nullable String error) {
+
+    public enum State { QUEUED, SAVED, FAILED }
+
+    public static IngestStatus queued(String trackingId) {
+        return new IngestStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static IngestStatus saved(String trackingId, Long bookId) {
+        return new IngestStatus(trackingId, State.SAVED, bookId, null);
+    }
+
+    public static IngestStatus failed(String trackingId, String error) {
+        return new IngestStatus(trackingId, State.FAILED, null, error);
+    }
+}
@@ -0,0 +1,99 @@
+package com.micr.crud.app.interceptor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free closed/open/half-open circuit breaker.
+ * <p>
+ * {@code failureThreshold} consecutive failures open the circuit. After {@code resetTimeout}
+ * a single trial call is let through (half-open): its success closes the circuit, its failure
+ * opens it again. A trial that never reports back, because it was cancelled ({@link #onAbandoned()})
+ * or hangs for longer than {@code trialTimeout}, opens it again too.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long resetTimeoutNanos;
+    private final long trialTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+    private volatile long halfOpenedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration resetTimeout, Duration trialTimeout,
+                          LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.resetTimeoutNanos = resetTimeout.toNanos();
+        this.trialTimeoutNanos = trialTimeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /**
+     * Returns whether a call may go ahead. Moves an expired open circuit to half-open, which
+     * admits only the caller that made the transition, and a half-open circuit whose trial has
+     * outlived {@code trialTimeout} back to open.
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        if (current == State.HALF_OPEN) {
+            if (now - halfOpenedAt >= trialTimeoutNanos) {
+                trip(State.HALF_OPEN);
+            }
+            return false;
+        }
+        if (now - openedAt < resetTimeoutNanos) {
+            return false;
+        }
+        halfOpenedAt = now;
+        return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    public void onSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (state.get() == State.HALF_OPEN) {
+            state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            trip(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            trip(State.CLOSED);
+        }
+    }
+
+    /**
+     * Reports a call that ended without an outcome, e.g. a cancelled subscription. If it was the
+     * half-open trial, the circuit opens again so that a later call gets a new trial.
+     */
+    public void onAbandoned() {
+        if (state.get() == State.HALF_OPEN) {
+            trip(State.HALF_OPEN);
+        }
+    }
+
+    private void trip(State from) {
+        // written before the transition so no caller sees OPEN with a stale timestamp
+        openedAt = nanoClock.getAsLong();
+        if (state.compareAndSet(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.micr.crud.app.interceptor;
+
+/**
+ * Thrown instead of calling a {@code @RetryOnFailure} method whose circuit is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String methodName, Throwable cause) {
+        super("Circuit open for method: " + methodName, cause);
+    }
+}
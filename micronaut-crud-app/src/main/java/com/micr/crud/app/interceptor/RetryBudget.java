@@ -0,0 +1,76 @@
+package com.micr.crud.app.interceptor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caps retries to a fraction of first attempts over a sliding window.
+ * <p>
+ * The window is split into {@value #BUCKETS} buckets of atomic counters that are reset when
+ * the clock moves onto them again. Nothing is locked, so concurrent callers may overshoot
+ * the budget by a few retries, which is fine for load shedding. Callers pass the current
+ * {@link System#nanoTime()} so one reading can serve several budgets.
+ */
+public final class RetryBudget {
+
+    private static final int BUCKETS = 10;
+
+    private final double ratio;
+    private final long minRetries;
+    private final long bucketNanos;
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray requests = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray retries = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param ratio      retries allowed per first attempt, e.g. {@code 0.2} for 20%
+     * @param minRetries retries always allowed per window, so quiet methods can still retry
+     * @param window     length of the sliding window
+     */
+    public RetryBudget(double ratio, long minRetries, Duration window) {
+        this.ratio = ratio;
+        this.minRetries = minRetries;
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Records a first attempt, which earns {@code ratio} retries.
+     */
+    public void recordRequest(long nanoTime) {
+        requests.incrementAndGet(bucket(nanoTime / bucketNanos));
+    }
+
+    /**
+     * Spends one retry if the window still has budget left.
+     */
+    public boolean tryAcquireRetry(long nanoTime) {
+        long epoch = nanoTime / bucketNanos;
+        int current = bucket(epoch);
+        long requested = 0;
+        long retried = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (epochs.get(i) > epoch - BUCKETS) {
+                requested += requests.get(i);
+                retried += retries.get(i);
+            }
+        }
+        if (retried >= Math.max(minRetries, (long) (requested * ratio))) {
+            return false;
+        }
+        retries.incrementAndGet(current);
+        return true;
+    }
+
+    private int bucket(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) BUCKETS);
+        long seen = epochs.get(index);
+        if (seen != epoch && epochs.compareAndSet(index, seen, epoch)) {
+            requests.set(index, 0);
+            retries.set(index, 0);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,34 @@
+package com.micr.crud.app.interceptor;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("retry")
+public class RetryConfiguration {
+
+    private double budgetRatio = 0.2;
+    private long budgetMinRetries = 10;
+    private Duration budgetWindow = Duration.ofSeconds(10);
+    private int breakerFailureThreshold = 5;
+    private Duration breakerResetTimeout = Duration.ofSeconds(30);
+    private Duration breakerTrialTimeout = Duration.ofSeconds(30);
+
+    /** Retries allowed per first attempt within the window, globally and per method. */
+    public double getBudgetRatio() { return budgetRatio; }
+    public void setBudgetRatio(double budgetRatio) { this.budgetRatio = budgetRatio; }
+    /** Retries always allowed within the window, whatever the traffic. */
+    public long getBudgetMinRetries() { return budgetMinRetries; }
+    public void setBudgetMinRetries(long budgetMinRetries) { this.budgetMinRetries = budgetMinRetries; }
+    public Duration getBudgetWindow() { return budgetWindow; }
+    public void setBudgetWindow(Duration budgetWindow) { this.budgetWindow = budgetWindow; }
+    /** Consecutive retryable failures of a method that open its circuit. */
+    public int getBreakerFailureThreshold() { return breakerFailureThreshold; }
+    public void setBreakerFailureThreshold(int breakerFailureThreshold) { this.breakerFailureThreshold = breakerFailureThreshold; }
+    /** How long a circuit stays open before a trial call is let through. */
+    public Duration getBreakerResetTimeout() { return breakerResetTimeout; }
+    public void setBreakerResetTimeout(Duration breakerResetTimeout) { this.breakerResetTimeout = breakerResetTimeout; }
+    /** How long a trial call may take before the circuit is opened again without its outcome. */
+    public Duration getBreakerTrialTimeout() { return breakerTrialTimeout; }
+    public void setBreakerTrialTimeout(Duration breakerTrialTimeout) { this.breakerTrialTimeout = breakerTrialTimeout; }
+}
@@ -0,0 +1,70 @@
+package com.micr.crud.app.interceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Meters of one {@code @RetryOnFailure} method, registered once so recording is just an increment.
+ * <ul>
+ *     <li>{@code retry.calls{method, outcome}}: calls by outcome, see {@link Outcome}</li>
+ *     <li>{@code retry.attempts{method}}: retries made after a failed attempt</li>
+ *     <li>{@code retry.circuit.state{method}}: 0 closed, 1 open, 2 half-open</li>
+ * </ul>
+ */
+public final class RetryMetrics {
+
+    public enum Outcome {
+        /** Succeeded on the first attempt. */
+        SUCCESS,
+        /** Succeeded after at least one retry. */
+        RECOVERED,
+        /** Failed with an exception that is not retried. */
+        NON_RETRYABLE,
+        /** Failed on every attempt. */
+        EXHAUSTED,
+        /** Rejected because the circuit was open. */
+        CIRCUIT_OPEN,
+        /** Stopped because the retry budget was spent. */
+        BUDGET_EXHAUSTED
+    }
+
+    private final MeterRegistry registry;
+    private final String method;
+    private final Counter[] calls = new Counter[Outcome.values().length];
+    private final Counter retries;
+
+    public RetryMetrics(MeterRegistry registry, String method) {
+        this.registry = registry;
+        this.method = method;
+        for (Outcome outcome : Outcome.values()) {
+            calls[outcome.ordinal()] = Counter.builder("retry.calls")
+                    .description("Calls of @RetryOnFailure methods by outcome")
+                    .tag("method", method)
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry);
+        }
+        this.retries = Counter.builder("retry.attempts")
+                .description("Retries made after a failed attempt")
+                .tag("method", method)
+                .register(registry);
+    }
+
+    /**
+     * Publishes the state of the method's circuit. Called once, for the breaker actually in use.
+     */
+    public void bindCircuit(CircuitBreaker breaker) {
+        Gauge.builder("retry.circuit.state", breaker, b -> b.state().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .tag("method", method)
+                .register(registry);
+    }
+
+    public void record(Outcome outcome) {
+        calls[outcome.ordinal()].increment();
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+}
@@ -2,50 +2,306 @@ package com.micr.crud.app.interceptor;
 
 
 import com.micr.crud.app.annotation.RetryOnFailure;
+import com.micr.crud.app.interceptor.RetryMetrics.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.aop.InterceptedMethod;
 import io.micronaut.aop.MethodInterceptor;
 import io.micronaut.aop.MethodInvocationContext;
 import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Retries {@link RetryOnFailure} methods.
+ * <p>
+ * The annotation and result type of a method are resolved on its first call and kept per
+ * {@link ExecutableMethod}, so a call that succeeds first time allocates nothing here.
+ * <p>
+ * Blocking methods sleep between attempts on the calling thread; on a virtual thread the
+ * sleep parks the virtual thread instead of pinning its carrier. Methods returning a
+ * {@link CompletionStage} are retried on the scheduled task scheduler and methods returning a
+ * {@code Publisher} (including {@code Mono}/{@code Flux}) on the Reactor timer, so no
+ * thread is blocked while waiting.
+ * <p>
+ * To keep retries from multiplying load during an outage, each retry spends from a global
+ * and a per-method {@link RetryBudget}, and each method has a {@link CircuitBreaker}. When
+ * either says no, the call fails fast instead of waiting for another attempt.
+ * <p>
+ * Outcomes, retries and circuit states are published per method, see {@link RetryMetrics}.
+ */
 @Singleton
 public class RetryOnFailureInterceptor implements MethodInterceptor<Object, Object> {
 
     private static final Logger log = LoggerFactory.getLogger(RetryOnFailureInterceptor.class);
+    private static final MethodRetry NOT_RETRIED = new MethodRetry(null, null, null, null, null);
+
+    private final ConversionService conversionService;
+    private final TaskScheduler scheduler;
+    private final RetryConfiguration config;
+    private final MeterRegistry meterRegistry;
+    private final RetryBudget globalBudget;
+    /**
+     * Copy-on-write and keyed by identity: {@code ExecutableMethod.hashCode()} hashes the argument
+     * types and boxes the result, which is too slow for every call.
+     */
+    private final AtomicReference<Map<ExecutableMethod<?, ?>, MethodRetry>> methods =
+            new AtomicReference<>(new IdentityHashMap<>());
+
+    public RetryOnFailureInterceptor(ConversionService conversionService,
+                                     @Named(TaskExecutors.SCHEDULED) TaskScheduler scheduler,
+                                     RetryConfiguration config,
+                                     MeterRegistry meterRegistry) {
+        this.conversionService = conversionService;
+        this.scheduler = scheduler;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.globalBudget = newBudget();
+    }
 
     @Override
     public Object intercept(MethodInvocationContext<Object, Object> context) {
-        AnnotationValue<RetryOnFailure> annotation =
-                context.getAnnotationMetadata().getAnnotation(RetryOnFailure.class);
-        if (annotation == null) {
+        MethodRetry retry = methodRetry(context);
+        if (retry == NOT_RETRIED) {
             return context.proceed();
         }
+        if (retry.resultType() == InterceptedMethod.ResultType.SYNCHRONOUS) {
+            admit(context, retry);
+            return retryBlocking(context, retry);
+        }
 
-        int maxAttempts = annotation.intValue("maxAttempts").orElse(3);
-        long delay = annotation.longValue("delayMs").orElse(500L);
+        InterceptedMethod interceptedMethod = InterceptedMethod.of(context, conversionService);
+        try {
+            if (retry.resultType() == InterceptedMethod.ResultType.COMPLETION_STAGE) {
+                admit(context, retry);
+                CompletableFuture<Object> result = new CompletableFuture<>();
+                retryAsync(interceptedMethod, context, retry, 1, retry.policy().delayMs(), result);
+                return interceptedMethod.handleResult(result);
+            }
+            return interceptedMethod.handleResult(retryPublisher(interceptedMethod, context, retry));
+        } catch (Exception e) {
+            return interceptedMethod.handleException(e);
+        }
+    }
 
+    private Object retryBlocking(MethodInvocationContext<Object, Object> context, MethodRetry retry) {
+        long delay = retry.policy().delayMs();
         int attempt = 0;
-        Exception lastException = null;
 
-        while (attempt < maxAttempts) {
+        while (true) {
             try {
                 attempt++;
-                log.info("Attempt {} for method: {}", attempt, context.getMethodName());
-                return context.proceed();
+                if (log.isDebugEnabled()) {
+                    log.debug("Attempt {} for method: {}", attempt, context.getMethodName());
+                }
+                Object result = context.proceed();
+                onSuccess(retry, attempt);
+                return result;
             } catch (Exception ex) {
-                lastException = ex;
-                log.warn("Attempt {} failed: {}", attempt, ex.getMessage());
-                if (attempt < maxAttempts) {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
+                Throwable outcome = checkRetry(context, retry, attempt, ex);
+                if (outcome != null) {
+                    throw outcome instanceof RuntimeException re ? re : new RuntimeException(outcome);
                 }
+                delay = retry.policy().nextDelay(attempt, delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void retryAsync(InterceptedMethod interceptedMethod, MethodInvocationContext<Object, Object> context,
+                            MethodRetry retry, int attempt, long previousDelay,
+                            CompletableFuture<Object> result) {
+        CompletionStage<?> stage;
+        try {
+            stage = interceptedMethod.interceptResultAsCompletionStage(this);
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((value, error) -> {
+            if (error == null) {
+                onSuccess(retry, attempt);
+                result.complete(value);
+                return;
             }
+            Throwable failure = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            Throwable outcome = checkRetry(context, retry, attempt, failure);
+            if (outcome != null) {
+                result.completeExceptionally(outcome);
+                return;
+            }
+            long delay = retry.policy().nextDelay(attempt, previousDelay);
+            scheduler.schedule(Duration.ofMillis(delay),
+                    () -> retryAsync(interceptedMethod, context, retry, attempt + 1, delay, result));
+        });
+    }
+
+    private Flux<Object> retryPublisher(InterceptedMethod interceptedMethod,
+                                        MethodInvocationContext<Object, Object> context,
+                                        MethodRetry retry) {
+        return Flux.defer(() -> {
+            admit(context, retry);
+            AtomicLong previousDelay = new AtomicLong(retry.policy().delayMs());
+            AtomicInteger attempts = new AtomicInteger(1);
+            AtomicInteger succeeded = new AtomicInteger();
+            // set while an attempt runs and has reported neither success nor failure to the breaker
+            AtomicBoolean attemptPending = new AtomicBoolean();
+            Runnable success = () -> {
+                attemptPending.set(false);
+                if (succeeded.compareAndSet(0, 1)) {
+                    onSuccess(retry, attempts.get());
+                }
+            };
+            return Flux.defer(() -> {
+                        attemptPending.set(true);
+                        return Flux.<Object>from(interceptedMethod.interceptResultAsPublisher(this));
+                    })
+                    // a Mono return type cancels after the first item, so success is taken from either signal
+                    .doOnNext(value -> success.run())
+                    .doOnComplete(success)
+                    .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                        attemptPending.set(false);
+                        int attempt = attempts.getAndIncrement();
+                        Throwable outcome = checkRetry(context, retry, attempt, signal.failure());
+                        if (outcome != null) {
+                            return Mono.error(outcome);
+                        }
+                        long delay = retry.policy().nextDelay(attempt, previousDelay.get());
+                        previousDelay.set(delay);
+                        return Mono.delay(Duration.ofMillis(delay));
+                    })))
+                    // a cancelled attempt never reports back; if it was the half-open trial, reopen the circuit
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL && attemptPending.get()) {
+                            retry.breaker().onAbandoned();
+                        }
+                    });
+        });
+    }
+
+    private void admit(MethodInvocationContext<Object, Object> context, MethodRetry retry) {
+        if (!retry.breaker().tryAcquire()) {
+            retry.metrics().record(Outcome.CIRCUIT_OPEN);
+            throw new CircuitOpenException(context.getMethodName(), null);
         }
-        log.error("All {} attempts failed", maxAttempts);
-        throw new RuntimeException("Operation failed after retries", lastException);
+        long now = System.nanoTime();
+        globalBudget.recordRequest(now);
+        retry.budget().recordRequest(now);
+    }
+
+    private void onSuccess(MethodRetry retry, int attempt) {
+        retry.breaker().onSuccess();
+        retry.metrics().record(attempt == 1 ? Outcome.SUCCESS : Outcome.RECOVERED);
+    }
+
+    /**
+     * Records a failed attempt and returns the error to complete with, or {@code null} if the
+     * call should be retried.
+     */
+    private Throwable checkRetry(MethodInvocationContext<Object, Object> context, MethodRetry retry,
+                                 int attempt, Throwable failure) {
+        if (!retry.policy().isRetryable(failure)) {
+            // the method answered, so this does not count against its circuit
+            retry.breaker().onSuccess();
+            retry.metrics().record(Outcome.NON_RETRYABLE);
+            log.warn("Attempt {} failed with non-retryable {}: {}",
+                    attempt, failure.getClass().getSimpleName(), failure.getMessage());
+            return failure;
+        }
+        retry.breaker().onFailure();
+        log.warn("Attempt {} for method {} failed: {}", attempt, context.getMethodName(), failure.getMessage());
+        if (attempt >= retry.policy().maxAttempts()) {
+            retry.metrics().record(Outcome.EXHAUSTED);
+            log.error("All {} attempts failed", retry.policy().maxAttempts());
+            return new RuntimeException("Operation failed after retries", failure);
+        }
+        if (!retry.breaker().tryAcquire()) {
+            retry.metrics().record(Outcome.CIRCUIT_OPEN);
+            log.warn("Circuit open for method {}, not retrying", context.getMethodName());
+            return new CircuitOpenException(context.getMethodName(), failure);
+        }
+        long now = System.nanoTime();
+        if (!retry.budget().tryAcquireRetry(now) || !globalBudget.tryAcquireRetry(now)) {
+            retry.metrics().record(Outcome.BUDGET_EXHAUSTED);
+            log.warn("Retry budget exhausted for method {}, not retrying", context.getMethodName());
+            return new RuntimeException("Retry budget exhausted", failure);
+        }
+        retry.metrics().recordRetry();
+        return null;
+    }
+
+    /**
+     * Returns the retry settings of the invoked method, resolving the annotation and the
+     * result type only on the first call.
+     */
+    private MethodRetry methodRetry(MethodInvocationContext<Object, Object> context) {
+        ExecutableMethod<?, ?> method = context.getExecutableMethod();
+        MethodRetry retry = methods.get().get(method);
+        if (retry == null) {
+            MethodRetry resolved = resolve(context);
+            retry = methods.updateAndGet(current -> {
+                if (current.containsKey(method)) {
+                    return current;
+                }
+                Map<ExecutableMethod<?, ?>, MethodRetry> copy = new IdentityHashMap<>(current);
+                copy.put(method, resolved);
+                return copy;
+            }).get(method);
+            if (retry == resolved && retry != NOT_RETRIED) {
+                retry.metrics().bindCircuit(retry.breaker());
+            }
+        }
+        return retry;
+    }
+
+    private MethodRetry resolve(MethodInvocationContext<Object, Object> context) {
+        AnnotationValue<RetryOnFailure> annotation =
+                context.getAnnotationMetadata().getAnnotation(RetryOnFailure.class);
+        if (annotation == null) {
+            return NOT_RETRIED;
+        }
+        String name = context.getDeclaringType().getSimpleName() + "." + context.getMethodName();
+        return new MethodRetry(
+                RetryPolicy.from(annotation),
+                InterceptedMethod.of(context, conversionService).resultType(),
+                newBudget(),
+                new CircuitBreaker(config.getBreakerFailureThreshold(), config.getBreakerResetTimeout(),
+                        config.getBreakerTrialTimeout(), System::nanoTime),
+                new RetryMetrics(meterRegistry, name));
+    }
+
+    private RetryBudget newBudget() {
+        return new RetryBudget(config.getBudgetRatio(), config.getBudgetMinRetries(), config.getBudgetWindow());
+    }
+
+    /**
+     * Everything the interceptor needs about one method, resolved once.
+     */
+    private record MethodRetry(RetryPolicy policy, InterceptedMethod.ResultType resultType,
+                               RetryBudget budget, CircuitBreaker breaker, RetryMetrics metrics) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.micr.crud.app.interceptor;
+
+import com.micr.crud.app.annotation.RetryOnFailure;
+import io.micronaut.core.annotation.AnnotationValue;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The retry settings of one {@link RetryOnFailure} method.
+ */
+public final class RetryPolicy {
+
+    private static final Class<?>[] NONE = new Class<?>[0];
+
+    private final int maxAttempts;
+    private final long delayMs;
+    private final double multiplier;
+    private final long maxDelayMs;
+    private final RetryOnFailure.Jitter jitter;
+    private final Class<?>[] includes;
+    private final Class<?>[] excludes;
+
+    public RetryPolicy(int maxAttempts, long delayMs, double multiplier, long maxDelayMs,
+                       RetryOnFailure.Jitter jitter, Class<?>[] includes, Class<?>[] excludes) {
+        this.maxAttempts = maxAttempts;
+        this.delayMs = delayMs;
+        this.multiplier = multiplier;
+        this.maxDelayMs = Math.max(delayMs, maxDelayMs);
+        this.jitter = jitter;
+        this.includes = includes == null ? NONE : includes;
+        this.excludes = excludes == null ? NONE : excludes;
+    }
+
+    public static RetryPolicy from(AnnotationValue<RetryOnFailure> annotation) {
+        return new RetryPolicy(
+                annotation.intValue("maxAttempts").orElse(3),
+                annotation.longValue("delayMs").orElse(500L),
+                annotation.doubleValue("multiplier").orElse(1.0),
+                annotation.longValue("maxDelayMs").orElse(30_000L),
+                annotation.enumValue("jitter", RetryOnFailure.Jitter.class).orElse(RetryOnFailure.Jitter.NONE),
+                annotation.classValues("includes"),
+                annotation.classValues("excludes"));
+    }
+
+    public int maxAttempts() { return maxAttempts; }
+    public long delayMs() { return delayMs; }
+
+    /**
+     * An exception is retryable when it, or one of its causes, matches {@code includes}
+     * (or {@code includes} is empty) and none of them matches {@code excludes}.
+     */
+    public boolean isRetryable(Throwable failure) {
+        return (includes.length == 0 || causedBy(failure, includes)) && !causedBy(failure, excludes);
+    }
+
+    /**
+     * Returns how long to wait after the {@code failedAttempts}-th failure.
+     *
+     * @param previousDelay the delay used before the previous attempt, or {@code delayMs} for the first retry
+     */
+    public long nextDelay(int failedAttempts, long previousDelay) {
+        double exponential = delayMs * Math.pow(multiplier, failedAttempts - 1);
+        long base = (long) Math.min(maxDelayMs, exponential);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (jitter) {
+            case NONE -> base;
+            case FULL -> random.nextLong(base + 1);
+            case EQUAL -> base / 2 + random.nextLong(base - base / 2 + 1);
+            case DECORRELATED -> Math.min(maxDelayMs,
+                    random.nextLong(delayMs, Math.max(delayMs, previousDelay * 3) + 1));
+        };
+    }
+
+    private static boolean causedBy(Throwable failure, Class<?>[] types) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            for (Class<?> type : types) {
+                if (type.isInstance(t)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package com.micr.crud.app.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.inject.Singleton;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives Hikari's {@code hikaricp.connections.acquire} timer fixed histogram buckets, from 1 ms up
+ * to the default {@code connection-timeout} of 30 s. Prometheus gets them as
+ * {@code hikaricp_connections_acquire_seconds_bucket}, and {@link ConnectionPoolEndpoint} reports them.
+ */
+@Singleton
+public class ConnectionAcquireHistogram implements MeterFilter {
+
+    public static final String ACQUIRE = "hikaricp.connections.acquire";
+
+    private static final double[] BUCKETS_NANOS = Arrays.stream(new long[] {1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000, 30000})
+            .mapToDouble(TimeUnit.MILLISECONDS::toNanos)
+            .toArray();
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!id.getName().equals(ACQUIRE)) {
+            return config;
+        }
+        return DistributionStatisticConfig.builder()
+                .serviceLevelObjectives(BUCKETS_NANOS)
+                .build()
+                .merge(config);
+    }
+}
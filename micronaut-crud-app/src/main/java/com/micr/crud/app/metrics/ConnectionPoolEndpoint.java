@@ -0,0 +1,55 @@
+package com.micr.crud.app.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code GET /pool}: connections in use, idle and waited for in every Hikari pool, with the pool
+ * limits and how long acquiring a connection has taken (see {@link ConnectionAcquireHistogram}).
+ * A pool that is starved shows {@code active == maximumPoolSize} and {@code pending > 0}, and its
+ * acquisitions move to the upper buckets.
+ */
+@Endpoint(id = "pool")
+public class ConnectionPoolEndpoint {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final MeterRegistry registry;
+
+    public ConnectionPoolEndpoint(List<DataSource> dataSources, MeterRegistry registry) throws SQLException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                pools.add(dataSource.unwrap(HikariDataSource.class));
+            }
+        }
+        this.registry = registry;
+    }
+
+    @Read
+    public List<PoolDiagnostics> pools() {
+        return pools.stream().map(this::diagnose).toList();
+    }
+
+    private PoolDiagnostics diagnose(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        // a pool that has not started yet has no name, and no meters
+        Timer acquire = bean == null ? null
+                : registry.find(ConnectionAcquireHistogram.ACQUIRE).tag("pool", pool.getPoolName()).timer();
+        return new PoolDiagnostics(pool.getPoolName(),
+                bean == null ? 0 : bean.getActiveConnections(),
+                bean == null ? 0 : bean.getIdleConnections(),
+                bean == null ? 0 : bean.getTotalConnections(),
+                bean == null ? 0 : bean.getThreadsAwaitingConnection(),
+                pool.getMaximumPoolSize(), pool.getMinimumIdle(), pool.getConnectionTimeout(),
+                pool.getLeakDetectionThreshold(),
+                acquire == null ? null : PoolDiagnostics.AcquireTimes.of(acquire.takeSnapshot()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.micr.crud.app.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate statistics (needs {@code hibernate.generate_statistics=true}).
+ */
+@Singleton
+@Requires(beans = EntityManagerFactory.class)
+public class HibernateStatisticsBinder implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsBinder(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.statements", "JDBC statements prepared", Statistics::getPrepareStatementCount);
+        counter(registry, "hibernate.query.executions", "HQL and native queries executed", Statistics::getQueryExecutionCount);
+        counter(registry, "hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(registry, "hibernate.connections.obtained", "JDBC connections obtained", Statistics::getConnectCount);
+        counter(registry, "hibernate.transactions", "Completed transactions", Statistics::getTransactionCount);
+        counter(registry, "hibernate.optimistic.failures", "Stale object failures", Statistics::getOptimisticFailureCount);
+        counter(registry, "hibernate.entities.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", "Entities fetched lazily", Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.entities.inserts", "Entities inserted", Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updates", "Entities updated", Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.entities.deletes", "Entities deleted", Statistics::getEntityDeleteCount);
+        Gauge.builder("hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query execution")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value)
+                .description(description)
+                .register(registry);
+    }
+}
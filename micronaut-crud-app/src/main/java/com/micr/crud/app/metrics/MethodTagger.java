@@ -0,0 +1,21 @@
+package com.micr.crud.app.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.configuration.metrics.aggregator.AbstractMethodTagger;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+
+/**
+ * Tags {@code @Timed} meters with the invoked method, so {@code books.repository} has one
+ * series per repository query.
+ */
+@Singleton
+public class MethodTagger extends AbstractMethodTagger {
+
+    @Override
+    protected List<Tag> buildTags(MethodInvocationContext<Object, Object> context) {
+        return List.of(Tag.of("method", context.getMethodName()));
+    }
+}
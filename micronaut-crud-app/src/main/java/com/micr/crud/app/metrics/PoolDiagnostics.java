@@ -0,0 +1,43 @@
+package com.micr.crud.app.metrics;
+
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State of one Hikari pool, as reported by {@link ConnectionPoolEndpoint}. {@code pending} counts
+ * the threads waiting for a connection right now; {@code acquire} is null until the pool has
+ * published its metrics.
+ */
+@Serdeable
+public record PoolDiagnostics(String pool, int active, int idle, int total, int pending,
+                              int maximumPoolSize, int minimumIdle, long connectionTimeoutMillis,
+                              long leakDetectionThresholdMillis, @Nullable AcquireTimes acquire) {
+
+    /**
+     * Time spent waiting for a connection since startup. Buckets are cumulative, like Prometheus:
+     * each holds the acquisitions that took at most {@code leMillis}.
+     */
+    @Serdeable
+    public record AcquireTimes(long count, double meanMillis, double maxMillis, List<Bucket> buckets) {
+
+        public static AcquireTimes of(HistogramSnapshot snapshot) {
+            return new AcquireTimes(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS),
+                    Arrays.stream(snapshot.histogramCounts()).map(Bucket::of).toList());
+        }
+    }
+
+    @Serdeable
+    public record Bucket(double leMillis, long count) {
+
+        static Bucket of(CountAtBucket bucket) {
+            return new Bucket(bucket.bucket(TimeUnit.MILLISECONDS), (long) bucket.count());
+        }
+    }
+}
@@ -1,9 +1,42 @@
 package com.micr.crud.app.repository;
 
-import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.CrudRepository;
 import com.micr.crud.app.entity.Book;
 
-@Repository
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries used by {@link com.micr.crud.app.service.BookService}. Implemented by
+ * {@link JpaBookRepository} (Hibernate, the default) and {@link JdbcBookRepository}
+ * ({@code books.persistence=jdbc}).
+ */
 public interface BookRepository extends CrudRepository<Book, Long> {
+
+    // keyset page: callers pass a Pageable sorted by id so the PK index drives the scan
+    List<Book> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // keyset pages of one author's books, served by idx_books_author (author, id)
+    List<Book> findByAuthorAndIdGreaterThan(String author, Long id, Pageable pageable);
+
+    // LIKE 'prefix%' is a range scan of idx_books_title (title, id); callers sort by title and id.
+    // An id > ? keyset here would make H2 walk the primary key instead.
+    List<Book> findByTitleStartsWith(String prefix, Pageable pageable);
+
+    // the (title, id) keyset as two seeks of idx_books_title: the rest of the cursor's title by id,
+    // then the titles after it; an OR of both in one query would not use the index
+    List<Book> findByTitleAndIdGreaterThan(String title, Long id, Pageable pageable);
+
+    List<Book> findByTitleStartsWithAndTitleGreaterThan(String prefix, String title, Pageable pageable);
+
+    long countByAuthor(String author);
+
+    // read from the end of idx_books_updated_at, no table scan
+    Optional<Instant> findMaxUpdatedAt();
+
+    // single DELETE ... WHERE id IN (...) instead of one statement per id
+    void deleteByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.micr.crud.app.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+
+/**
+ * Plain JDBC over the same table: SQL is generated at compile time and results are mapped
+ * straight to {@link com.micr.crud.app.entity.Book}, with no session, dirty checking or
+ * first-level cache.
+ */
+@JdbcRepository(dialect = Dialect.H2)
+@Requires(property = "books.persistence", value = "jdbc")
+@Timed(value = "books.repository", histogram = true)
+public interface JdbcBookRepository extends BookRepository {
+}
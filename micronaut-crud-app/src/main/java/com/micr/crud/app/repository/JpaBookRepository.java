@@ -0,0 +1,11 @@
+package com.micr.crud.app.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.annotation.Repository;
+
+@Repository
+@Requires(property = "books.persistence", value = "jpa", defaultValue = "jpa")
+@Timed(value = "books.repository", histogram = true)
+public interface JpaBookRepository extends BookRepository {
+}
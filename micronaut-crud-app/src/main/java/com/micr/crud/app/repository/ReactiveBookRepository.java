@@ -0,0 +1,40 @@
+package com.micr.crud.app.repository;
+
+import com.micr.crud.app.entity.BookRow;
+import io.micrometer.core.annotation.Timed;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.r2dbc.annotation.R2dbcRepository;
+import io.micronaut.data.repository.reactive.ReactorCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@R2dbcRepository(dialect = Dialect.H2)
+@Requires(property = "books.persistence", value = "r2dbc")
+@Timed(value = "books.repository", histogram = true)
+public interface ReactiveBookRepository extends ReactorCrudRepository<BookRow, Long> {
+
+    // keyset page: callers pass a Pageable sorted by id so the PK index drives the scan
+    Flux<BookRow> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // see BookRepository: served by idx_books_author and idx_books_title
+    Flux<BookRow> findByAuthorAndIdGreaterThan(String author, Long id, Pageable pageable);
+
+    Flux<BookRow> findByTitleStartsWith(String prefix, Pageable pageable);
+
+    // see BookRepository: the (title, id) keyset as two seeks of idx_books_title
+    Flux<BookRow> findByTitleAndIdGreaterThan(String title, Long id, Pageable pageable);
+
+    Flux<BookRow> findByTitleStartsWithAndTitleGreaterThan(String prefix, String title, Pageable pageable);
+
+    Mono<Long> countByAuthor(String author);
+
+    Mono<Instant> findMaxUpdatedAt();
+
+    // single DELETE ... WHERE id IN (...) instead of one statement per id
+    Mono<Long> deleteByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,302 @@
+package com.micr.crud.app.search;
+
+import com.micr.crud.app.cache.BookSnapshot;
+import com.micr.crud.app.entity.Book;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over book titles and authors, loaded at startup and kept in sync by
+ * {@link com.micr.crud.app.service.BookService} or its reactive counterpart.
+ * <p>
+ * Text is split on every character that is not a letter or digit and lower-cased. Each query token
+ * matches the terms it equals or is a prefix of, looked up as a range of the field's sorted term
+ * dictionary; a book matches when it contains every query token. Books are ranked by BM25 without
+ * length normalization (k1 = 1), prefix matches count half, and ties go to the earlier indexed book.
+ * Every term of the range is matched, so a short prefix costs as much as all the postings it covers;
+ * only the top {@code k} are kept while scoring.
+ * <p>
+ * Searches share a read lock; writes take the write lock. Deleted documents are compacted away once
+ * they make up more than half of the index.
+ */
+@Singleton
+public class BookSearchIndex {
+
+    static final float PREFIX_WEIGHT = 0.5f;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexSegment segment = new IndexSegment();
+
+    /**
+     * Replaces the whole index with the books of {@code batches}. Each batch is indexed into its own
+     * segment on the common fork-join pool while the next batch is read; the segments are then
+     * appended in order.
+     */
+    public void rebuild(Stream<List<Book>> batches) {
+        List<CompletableFuture<IndexSegment>> parts = batches
+                .map(batch -> CompletableFuture.supplyAsync(
+                        () -> IndexSegment.of(batch.stream().map(BookSnapshot::of).toList())))
+                .toList();
+        IndexSegment rebuilt = new IndexSegment();
+        for (CompletableFuture<IndexSegment> part : parts) {
+            rebuilt.append(part.join());
+        }
+        lock.writeLock().lock();
+        try {
+            segment = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds {@code book}, replacing the indexed copy of the same id. */
+    public void put(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            segment.add(BookSnapshot.of(book));
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (segment.remove(id)) {
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the index already reflects a write of {@code id} at {@code version}: the book
+     * is indexed at that version or later. {@code version == null} stands for a delete or a write of
+     * unknown version, which the index reflects if the book is missing or indexed without a version.
+     */
+    public boolean isCurrent(Long id, @Nullable Long version) {
+        lock.readLock().lock();
+        try {
+            BookSnapshot indexed = segment.book(id);
+            if (indexed == null) {
+                return version == null;
+            }
+            if (version == null) {
+                return indexed.version() == null;
+            }
+            return indexed.version() != null && indexed.version() >= version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} books matching every token of {@code query}, best first.
+     *
+     * @param field the field to search, or null for title and author
+     */
+    public List<Book> search(String query, @Nullable SearchField field, int k) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        SearchField[] fields = field == null ? SearchField.values() : new SearchField[] {field};
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+            for (String token : tokens) {
+                long[] hits = match(token, fields);
+                matches = matches == null ? hits : intersect(matches, hits);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+            }
+            return top(matches, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(@Nullable String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Live documents containing a term that {@code token} equals or prefixes, sorted by document,
+     * each packed as {@code doc << 32 | floatBits(score)} with the best score over fields and terms.
+     */
+    private long[] match(String token, SearchField[] fields) {
+        int live = segment.liveCount();
+        long[] hits = new long[16];
+        int count = 0;
+        for (SearchField field : fields) {
+            for (Map.Entry<String, PostingList> entry : segment.termsStartingWith(field, token).entrySet()) {
+                PostingList postings = entry.getValue();
+                float weight = idf(postings.size(), live) * (entry.getKey().length() == token.length() ? 1f : PREFIX_WEIGHT);
+                for (int i = 0; i < postings.size(); i++) {
+                    int doc = postings.doc(i);
+                    if (segment.isDeleted(doc)) {
+                        continue;
+                    }
+                    if (count == hits.length) {
+                        hits = Arrays.copyOf(hits, count * 2);
+                    }
+                    int freq = postings.freq(i);
+                    hits[count++] = pack(doc, weight * 2 * freq / (freq + 1f));
+                }
+            }
+        }
+        Arrays.sort(hits, 0, count);
+        // the same document is adjacent with ascending scores, keep its last entry
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i + 1 == count || doc(hits[i + 1]) != doc(hits[i])) {
+                hits[distinct++] = hits[i];
+            }
+        }
+        return Arrays.copyOf(hits, distinct);
+    }
+
+    // both arrays are sorted by document; keeps the documents in both and adds up their scores
+    private static long[] intersect(long[] a, long[] b) {
+        long[] both = new long[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            int docA = doc(a[i]);
+            int docB = doc(b[j]);
+            if (docA < docB) {
+                i++;
+            } else if (docA > docB) {
+                j++;
+            } else {
+                both[count++] = pack(docA, score(a[i++]) + score(b[j++]));
+            }
+        }
+        return Arrays.copyOf(both, count);
+    }
+
+    private List<Book> top(long[] matches, int k) {
+        TopK best = new TopK(k);
+        for (long match : matches) {
+            // higher score first, then lower document number
+            best.offer((long) Float.floatToIntBits(score(match)) << 32 | (Integer.MAX_VALUE - doc(match)));
+        }
+        long[] ranked = best.sortedDescending();
+        List<Book> books = new ArrayList<>(ranked.length);
+        for (long rank : ranked) {
+            books.add(segment.book(Integer.MAX_VALUE - (int) rank).toBook());
+        }
+        return books;
+    }
+
+    private void compactIfSparse() {
+        if (segment.deletedCount() >= MIN_DELETED_TO_COMPACT && segment.deletedCount() * 2 > segment.docCount()) {
+            segment = segment.compacted();
+        }
+    }
+
+    // posting lists still count deleted documents, so docFreq can exceed the live count
+    private static float idf(int docFreq, int docCount) {
+        docFreq = Math.min(docFreq, docCount);
+        return (float) Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    // scores are non-negative, so their float bits sort like the scores themselves
+    private static long pack(int doc, float score) {
+        return (long) doc << 32 | Float.floatToIntBits(score);
+    }
+
+    private static int doc(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static float score(long packed) {
+        return Float.intBitsToFloat((int) packed);
+    }
+
+    /** Min-heap of the {@code k} largest longs offered. */
+    private static final class TopK {
+        private final long[] heap;
+        private int size;
+
+        TopK(int k) {
+            heap = new long[k];
+        }
+
+        void offer(long value) {
+            if (size < heap.length) {
+                heap[size] = value;
+                for (int i = size++; i > 0 && heap[(i - 1) / 2] > heap[i]; i = (i - 1) / 2) {
+                    swap(i, (i - 1) / 2);
+                }
+            } else if (value > heap[0]) {
+                heap[0] = value;
+                for (int i = 0, child; (child = 2 * i + 1) < size; i = child) {
+                    if (child + 1 < size && heap[child + 1] < heap[child]) {
+                        child++;
+                    }
+                    if (heap[i] <= heap[child]) {
+                        break;
+                    }
+                    swap(i, child);
+                }
+            }
+        }
+
+        long[] sortedDescending() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+                long tmp = sorted[i];
+                sorted[i] = sorted[j];
+                sorted[j] = tmp;
+            }
+            return sorted;
+        }
+
+        private void swap(int i, int j) {
+            long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
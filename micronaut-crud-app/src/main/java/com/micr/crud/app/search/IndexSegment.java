@@ -0,0 +1,150 @@
+package com.micr.crud.app.search;
+
+import com.micr.crud.app.cache.BookSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The data behind {@link BookSearchIndex}: stored books by document number, one sorted term
+ * dictionary per field, and the deleted documents. Not thread-safe; the index guards it.
+ * <p>
+ * Document numbers are handed out in insertion order, so adding a book appends to the end of
+ * every posting list it touches. Replacing or removing a book only marks its old document as
+ * deleted; {@link #compacted()} drops deleted documents by indexing the live books again.
+ */
+final class IndexSegment {
+
+    private final Map<SearchField, TreeMap<String, PostingList>> terms = new EnumMap<>(SearchField.class);
+    private final Map<Long, Integer> docOfBook = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private BookSnapshot[] docs = new BookSnapshot[16];
+    private int docCount;
+    private int deletedCount;
+
+    IndexSegment() {
+        for (SearchField field : SearchField.values()) {
+            terms.put(field, new TreeMap<>());
+        }
+    }
+
+    static IndexSegment of(List<BookSnapshot> books) {
+        IndexSegment segment = new IndexSegment();
+        books.forEach(segment::add);
+        return segment;
+    }
+
+    void add(BookSnapshot book) {
+        remove(book.id());
+        int doc = docCount++;
+        if (doc == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        docs[doc] = book;
+        docOfBook.put(book.id(), doc);
+        for (SearchField field : SearchField.values()) {
+            index(terms.get(field), doc, field.valueOf(book));
+        }
+    }
+
+    boolean remove(Long id) {
+        Integer doc = docOfBook.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        docs[doc] = null;
+        deleted.set(doc);
+        deletedCount++;
+        return true;
+    }
+
+    /**
+     * Moves every document of {@code other} behind the ones of this segment. A book present in
+     * both keeps the version from {@code other}. {@code other} must not be used afterwards.
+     */
+    void append(IndexSegment other) {
+        int offset = docCount;
+        for (Long id : other.docOfBook.keySet()) {
+            remove(id);
+        }
+        if (docCount + other.docCount > docs.length) {
+            docs = Arrays.copyOf(docs, Math.max(docs.length * 2, docCount + other.docCount));
+        }
+        System.arraycopy(other.docs, 0, docs, offset, other.docCount);
+        other.docOfBook.forEach((id, doc) -> docOfBook.put(id, doc + offset));
+        other.deleted.stream().forEach(doc -> deleted.set(doc + offset));
+        docCount += other.docCount;
+        deletedCount += other.deletedCount;
+        for (SearchField field : SearchField.values()) {
+            TreeMap<String, PostingList> dictionary = terms.get(field);
+            other.terms.get(field).forEach((term, postings) -> {
+                postings.shift(offset);
+                dictionary.merge(term, postings, (existing, appended) -> {
+                    existing.addAll(appended);
+                    return existing;
+                });
+            });
+        }
+    }
+
+    IndexSegment compacted() {
+        List<BookSnapshot> live = new ArrayList<>(liveCount());
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docs[doc] != null) {
+                live.add(docs[doc]);
+            }
+        }
+        return of(live);
+    }
+
+    /** Terms of {@code field} equal to or starting with {@code prefix}, in sorted order. */
+    NavigableMap<String, PostingList> termsStartingWith(SearchField field, String prefix) {
+        return terms.get(field).subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    BookSnapshot book(int doc) {
+        return docs[doc];
+    }
+
+    BookSnapshot book(Long id) {
+        Integer doc = docOfBook.get(id);
+        return doc == null ? null : docs[doc];
+    }
+
+    boolean isDeleted(int doc) {
+        return deleted.get(doc);
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    int liveCount() {
+        return docCount - deletedCount;
+    }
+
+    // counts each distinct token once, with its frequency, by sorting the tokens and walking the runs
+    private static void index(TreeMap<String, PostingList> dictionary, int doc, String text) {
+        List<String> tokens = new ArrayList<>(BookSearchIndex.tokenize(text));
+        Collections.sort(tokens);
+        for (int start = 0, end; start < tokens.size(); start = end) {
+            end = start + 1;
+            while (end < tokens.size() && tokens.get(end).equals(tokens.get(start))) {
+                end++;
+            }
+            dictionary.computeIfAbsent(tokens.get(start), term -> new PostingList()).add(doc, end - start);
+        }
+    }
+}
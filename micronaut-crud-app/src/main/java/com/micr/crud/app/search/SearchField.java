@@ -0,0 +1,35 @@
+package com.micr.crud.app.search;
+
+import com.micr.crud.app.cache.BookSnapshot;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The book fields {@link BookSearchIndex} tokenizes; each has its own term dictionary.
+ */
+public enum SearchField {
+    TITLE(BookSnapshot::title),
+    AUTHOR(BookSnapshot::author);
+
+    private final Function<BookSnapshot, String> value;
+
+    SearchField(Function<BookSnapshot, String> value) {
+        this.value = value;
+    }
+
+    String valueOf(BookSnapshot book) {
+        return value.apply(book);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code name} is neither {@code title} nor {@code author}
+     */
+    public static SearchField parse(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown search field: " + name + ", expected title or author");
+        }
+    }
+}
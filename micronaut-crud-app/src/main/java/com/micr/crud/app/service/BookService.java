@@ -1,40 +1,197 @@
 package com.micr.crud.app.service;
 
 import com.micr.crud.app.annotation.RetryOnFailure;
+import com.micr.crud.app.cache.BookCache;
+import com.micr.crud.app.cache.BookCacheStats;
+import com.micr.crud.app.cache.BookInvalidation;
+import com.micr.crud.app.cache.BookInvalidationBus;
+import com.micr.crud.app.cache.BookSnapshot;
+import com.micr.crud.app.cache.SingleFlight;
+import com.micr.crud.app.config.BookConfiguration;
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.dto.CatalogVersion;
+import com.micr.crud.app.dto.TitleCursor;
 import com.micr.crud.app.entity.Book;
 import com.micr.crud.app.repository.BookRepository;
+import com.micr.crud.app.search.BookSearchIndex;
+import com.micr.crud.app.search.SearchField;
+import com.micr.example.common.search.SearchWindow;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.runtime.event.annotation.EventListener;
 import jakarta.inject.Singleton;
 
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Singleton
+@Requires(property = "books.persistence", notEquals = "r2dbc")
 public class BookService {
+    private static final Sort BY_TITLE = Sort.of(Sort.Order.asc("title"), Sort.Order.asc("id"));
+
     private final BookRepository repo;
+    private final BookConfiguration config;
+    private final BookCache cache;
+    private final BookSearchIndex index;
+    private final SingleFlight<Long, Optional<BookSnapshot>> lookups = new SingleFlight<>();
 
-    public BookService(BookRepository repo) {
+    public BookService(BookRepository repo, BookConfiguration config, BookCache cache,
+                       BookSearchIndex index, BookInvalidationBus bus) {
         this.repo = repo;
+        this.config = config;
+        this.cache = cache;
+        this.index = index;
+        bus.subscribe(invalidation -> lookups.forget(invalidation.id()));
+        bus.subscribe(this::reindex);
+    }
+
+    /**
+     * Loads the search index from the database before the server takes requests; see
+     * {@link BookSearchIndex#rebuild}.
+     */
+    @EventListener
+    void onStartup(StartupEvent event) {
+        rebuildSearchIndex();
+    }
+
+    public void rebuildSearchIndex() {
+        index.rebuild(batches());
     }
 
     public List<Book> findAll() {
         return (List<Book>) repo.findAll();
     }
 
+    /**
+     * Returns the books with an id greater than {@code afterId}, in id order.
+     * The page size is clamped to {@code books.max-page-size}.
+     */
+    public BookPage findPage(Long afterId, @Nullable Integer limit) {
+        int size = pageSize(limit);
+        return page(repo.findByIdGreaterThan(afterId, pageAfter(size)), size);
+    }
+
+    /**
+     * Returns the books whose author is exactly {@code author}, paged by id like {@link #findPage}.
+     */
+    public BookPage findByAuthor(String author, Long afterId, @Nullable Integer limit) {
+        int size = pageSize(limit);
+        return page(repo.findByAuthorAndIdGreaterThan(author, afterId, pageAfter(size)), size);
+    }
+
+    /**
+     * Returns the books whose title starts with {@code prefix} (case-sensitive), ordered by title and
+     * then id and paged by that pair like {@link #findPage}: the cursor holds the title and id of the
+     * last book, so a page costs the same however deep it is.
+     *
+     * @param after the last book of the previous page, or null for the first page
+     */
+    public BookPage findByTitlePrefix(String prefix, @Nullable TitleCursor after, @Nullable Integer limit) {
+        int size = pageSize(limit);
+        if (after == null) {
+            return titlePage(repo.findByTitleStartsWith(prefix, Pageable.from(0, size + 1, BY_TITLE)), size);
+        }
+        List<Book> rows = new ArrayList<>(repo.findByTitleAndIdGreaterThan(after.title(), after.id(), pageAfter(size)));
+        if (rows.size() <= size) {
+            rows.addAll(repo.findByTitleStartsWithAndTitleGreaterThan(prefix, after.title(),
+                    Pageable.from(0, size + 1 - rows.size(), BY_TITLE)));
+        }
+        return titlePage(rows, size);
+    }
+
+    public long countByAuthor(String author) {
+        return repo.countByAuthor(author);
+    }
+
+    /**
+     * Count and latest {@code updatedAt} of all books: two index lookups, no book is read.
+     */
+    public CatalogVersion catalogVersion() {
+        return new CatalogVersion(repo.count(), repo.findMaxUpdatedAt().orElse(null));
+    }
+
+    /**
+     * Lazily streams the whole catalog in id order. Rows are read in keyset batches of
+     * {@code books.export-fetch-size}, so at most one batch is held in memory and no
+     * connection stays open between batches.
+     */
+    public Stream<Book> streamAll() {
+        return batches().flatMap(List::stream);
+    }
+
+    /**
+     * Ranked full-text search, see {@link BookSearchIndex}. {@code offset} comes from the previous
+     * page's cursor; only the first {@code books.search-max-results} results can be paged to.
+     *
+     * @throws IllegalArgumentException when {@code offset} is past {@code books.search-max-results}
+     */
+    public BookPage search(String query, @Nullable SearchField field, long offset, @Nullable Integer limit) {
+        SearchWindow window = SearchWindow.of(offset, pageSize(limit), config.getSearchMaxResults());
+        // one extra result tells whether a next page exists
+        List<Book> ranked = index.search(query, field, window.ranked());
+        return new BookPage(window.page(ranked), window.hasNext(ranked) ? BookCursor.encode((long) window.to()) : null);
+    }
+
+    /**
+     * A cache miss reads the book through {@link SingleFlight}: concurrent misses for the same id
+     * share one query, and each caller gets its own copy of the book.
+     */
     public Optional<Book> findById(Long id) {
-        return repo.findById(id);
+        return cache.get(id, key -> lookups.run(key, () -> repo.findById(key).map(BookSnapshot::of))
+                .map(BookSnapshot::toBook));
     }
 
     public Book save(Book book) {
-        return repo.save(book);
+        Book saved = repo.save(book);
+        index.put(saved);
+        cache.invalidate(saved);
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        index.remove(id);
+        cache.invalidate(id);
     }
 
-    @RetryOnFailure(maxAttempts = 3, delayMs = 100)
+    /**
+     * Persists all books in one transaction; inserts are sent as JDBC batches
+     * of {@code hibernate.jdbc.batch_size}. The repository call owns the transaction
+     * so that cache entries are only invalidated after it has committed.
+     *
+     * @throws IllegalArgumentException if more than {@code books.max-batch-size} books are given
+     */
+    public List<Book> saveAll(List<Book> books) {
+        checkBatchSize(books.size());
+        List<Book> saved = repo.saveAll(books);
+        saved.forEach(index::put);
+        saved.forEach(cache::invalidate);
+        return saved;
+    }
+
+    public void deleteAll(List<Long> ids) {
+        checkBatchSize(ids.size());
+        repo.deleteByIdIn(ids);
+        ids.forEach(index::remove);
+        ids.forEach(cache::invalidate);
+    }
+
+    // constraint violations will fail again, so only transient errors (e.g. lock timeouts) are retried;
+    // matched on the driver's exception so both the Hibernate and the JDBC repository are covered
+    @RetryOnFailure(maxAttempts = 3, delayMs = 100, multiplier = 2, jitter = RetryOnFailure.Jitter.FULL,
+            excludes = SQLIntegrityConstraintViolationException.class)
     public Book saveWithRetry(Book book) {
-        return repo.save(book);
+        Book saved = repo.save(book);
+        index.put(saved);
+        cache.invalidate(saved);
+        return saved;
     }
 
     // Counter for testing retry behavior
@@ -47,6 +204,65 @@ public class BookService {
             throw new RuntimeException("Simulated temporary failure - attempt " + failureCount);
         }
         failureCount = 0; // Reset for next test
-        return repo.save(book);
+        Book saved = repo.save(book);
+        index.put(saved);
+        cache.invalidate(saved);
+        return saved;
+    }
+
+    public BookCacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    private int pageSize(@Nullable Integer limit) {
+        return limit == null ? config.getDefaultPageSize()
+                : Math.max(1, Math.min(limit, config.getMaxPageSize()));
+    }
+
+    // one extra row tells whether a next page exists
+    private static Pageable pageAfter(int size) {
+        return Pageable.from(0, size + 1, Sort.of(Sort.Order.asc("id")));
+    }
+
+    private static BookPage page(List<Book> rows, int size) {
+        if (rows.size() <= size) {
+            return new BookPage(rows, null);
+        }
+        List<Book> items = rows.subList(0, size);
+        return new BookPage(items, BookCursor.encode(items.get(size - 1).getId()));
+    }
+
+    static BookPage titlePage(List<Book> rows, int size) {
+        if (rows.size() <= size) {
+            return new BookPage(rows, null);
+        }
+        List<Book> items = rows.subList(0, size);
+        Book last = items.get(size - 1);
+        return new BookPage(items, new TitleCursor(last.getTitle(), last.getId()).encode());
+    }
+
+    // keyset batches of books.export-fetch-size in id order, each read only when the previous one is consumed
+    private Stream<List<Book>> batches() {
+        int fetchSize = config.getExportFetchSize();
+        Pageable batch = Pageable.from(0, fetchSize, Sort.of(Sort.Order.asc("id")));
+        return Stream.iterate(repo.findByIdGreaterThan(0L, batch),
+                rows -> !rows.isEmpty(),
+                rows -> rows.size() < fetchSize ? List.of()
+                        : repo.findByIdGreaterThan(rows.get(rows.size() - 1).getId(), batch));
+    }
+
+    // local writes are already indexed when their invalidation arrives; writes on other nodes are reloaded
+    private void reindex(BookInvalidation invalidation) {
+        Long version = invalidation.version() == BookInvalidation.ANY_VERSION ? null : invalidation.version();
+        if (!index.isCurrent(invalidation.id(), version)) {
+            repo.findById(invalidation.id()).ifPresentOrElse(index::put, () -> index.remove(invalidation.id()));
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > config.getMaxBatchSize()) {
+            throw new IllegalArgumentException(
+                    "Batch of " + size + " exceeds the limit of " + config.getMaxBatchSize());
+        }
     }
-}
\ No newline at end of file
+}
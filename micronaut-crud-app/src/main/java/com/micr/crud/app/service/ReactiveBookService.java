@@ -0,0 +1,240 @@
+package com.micr.crud.app.service;
+
+import com.micr.crud.app.cache.BookCache;
+import com.micr.crud.app.cache.BookCacheStats;
+import com.micr.crud.app.cache.BookInvalidation;
+import com.micr.crud.app.cache.BookInvalidationBus;
+import com.micr.crud.app.cache.BookSnapshot;
+import com.micr.crud.app.cache.SingleFlight;
+import com.micr.crud.app.config.BookConfiguration;
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.dto.CatalogVersion;
+import com.micr.crud.app.dto.TitleCursor;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.entity.BookRow;
+import com.micr.crud.app.repository.ReactiveBookRepository;
+import com.micr.crud.app.search.BookSearchIndex;
+import com.micr.crud.app.search.SearchField;
+import com.micr.example.common.search.SearchWindow;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link BookService} over R2DBC: nothing here blocks, so callers can subscribe on the event loop.
+ * Enabled with {@code books.persistence=r2dbc}.
+ */
+@Singleton
+@Requires(property = "books.persistence", value = "r2dbc")
+public class ReactiveBookService {
+    private static final Sort BY_TITLE = Sort.of(Sort.Order.asc("title"), Sort.Order.asc("id"));
+
+    private final ReactiveBookRepository repo;
+    private final BookConfiguration config;
+    private final BookCache cache;
+    private final BookSearchIndex index;
+    private final SingleFlight<Long, BookSnapshot> lookups = new SingleFlight<>();
+
+    public ReactiveBookService(ReactiveBookRepository repo, BookConfiguration config, BookCache cache,
+                               BookSearchIndex index, BookInvalidationBus bus) {
+        this.repo = repo;
+        this.config = config;
+        this.cache = cache;
+        this.index = index;
+        bus.subscribe(invalidation -> lookups.forget(invalidation.id()));
+        bus.subscribe(this::reindex);
+    }
+
+    /**
+     * Loads the search index before the server takes requests. This is the one place that blocks:
+     * startup runs on the main thread, not on the event loop.
+     */
+    @EventListener
+    void onStartup(StartupEvent event) {
+        index.rebuild(streamAll().buffer(config.getExportFetchSize()).toStream());
+    }
+
+    public Flux<Book> findAll() {
+        return repo.findAll().map(BookRow::toBook);
+    }
+
+    /**
+     * Returns the books with an id greater than {@code afterId}, in id order.
+     * The page size is clamped to {@code books.max-page-size}.
+     */
+    public Mono<BookPage> findPage(Long afterId, @Nullable Integer limit) {
+        int size = pageSize(limit);
+        return page(repo.findByIdGreaterThan(afterId, pageAfter(size)), size);
+    }
+
+    /**
+     * Returns the books whose author is exactly {@code author}, paged by id like {@link #findPage}.
+     */
+    public Mono<BookPage> findByAuthor(String author, Long afterId, @Nullable Integer limit) {
+        int size = pageSize(limit);
+        return page(repo.findByAuthorAndIdGreaterThan(author, afterId, pageAfter(size)), size);
+    }
+
+    /**
+     * See {@link BookService#findByTitlePrefix}: ordered by title and id, paged by that pair.
+     */
+    public Mono<BookPage> findByTitlePrefix(String prefix, @Nullable TitleCursor after, @Nullable Integer limit) {
+        int size = pageSize(limit);
+        if (after == null) {
+            return titlePage(repo.findByTitleStartsWith(prefix, Pageable.from(0, size + 1, BY_TITLE)), size);
+        }
+        Flux<BookRow> sameTitle = repo.findByTitleAndIdGreaterThan(after.title(), after.id(), pageAfter(size));
+        return titlePage(sameTitle.collectList().flatMapMany(rows -> rows.size() > size ? Flux.fromIterable(rows)
+                : Flux.concat(Flux.fromIterable(rows), repo.findByTitleStartsWithAndTitleGreaterThan(prefix,
+                        after.title(), Pageable.from(0, size + 1 - rows.size(), BY_TITLE)))), size);
+    }
+
+    public Mono<Long> countByAuthor(String author) {
+        return repo.countByAuthor(author);
+    }
+
+    /**
+     * See {@link BookService#catalogVersion}.
+     */
+    public Mono<CatalogVersion> catalogVersion() {
+        return Mono.zip(repo.count(), repo.findMaxUpdatedAt().map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .map(version -> new CatalogVersion(version.getT1(), version.getT2().orElse(null)));
+    }
+
+    /**
+     * Streams the whole catalog in id order, reading keyset batches of {@code books.export-fetch-size}.
+     * The next batch is only queried once the previous one has been consumed.
+     */
+    public Flux<Book> streamAll() {
+        int fetchSize = config.getExportFetchSize();
+        Pageable batch = Pageable.from(0, fetchSize, Sort.of(Sort.Order.asc("id")));
+        return repo.findByIdGreaterThan(0L, batch).collectList()
+                .expand(rows -> rows.size() < fetchSize ? Mono.empty()
+                        : repo.findByIdGreaterThan(rows.get(rows.size() - 1).id(), batch).collectList())
+                .flatMapIterable(rows -> rows)
+                .map(BookRow::toBook);
+    }
+
+    /**
+     * {@link BookService#search}; the index is in memory, so this does not touch the database.
+     */
+    public BookPage search(String query, @Nullable SearchField field, long offset, @Nullable Integer limit) {
+        SearchWindow window = SearchWindow.of(offset, pageSize(limit), config.getSearchMaxResults());
+        List<Book> ranked = index.search(query, field, window.ranked());
+        return new BookPage(window.page(ranked), window.hasNext(ranked) ? BookCursor.encode((long) window.to()) : null);
+    }
+
+    /**
+     * Concurrent cache misses for the same id share one query, like {@link BookService#findById}.
+     * A subscriber that cancels does not cancel the query for the others.
+     */
+    public Mono<Book> findById(Long id) {
+        return cache.getAsync(id, key -> Mono.fromFuture(() -> lookups.future(key,
+                        () -> repo.findById(key).map(row -> BookSnapshot.of(row.toBook())).toFuture()), true)
+                .map(BookSnapshot::toBook));
+    }
+
+    public Mono<Book> save(Book book) {
+        return repo.save(BookRow.of(book))
+                .map(BookRow::toBook)
+                .doOnNext(index::put)
+                .doOnNext(cache::invalidate);
+    }
+
+    public Mono<Void> delete(Long id) {
+        return repo.deleteById(id)
+                .doOnSuccess(deleted -> {
+                    index.remove(id);
+                    cache.invalidate(id);
+                })
+                .then();
+    }
+
+    /**
+     * Persists all books in one batch. The repository call owns the transaction, so cache entries
+     * are only invalidated once every row is saved.
+     *
+     * @return an {@link IllegalArgumentException} error if more than {@code books.max-batch-size} books are given
+     */
+    public Mono<List<Book>> saveAll(List<Book> books) {
+        if (books.size() > config.getMaxBatchSize()) {
+            return Mono.error(batchTooLarge(books.size()));
+        }
+        return repo.saveAll(books.stream().map(BookRow::of).toList())
+                .map(BookRow::toBook)
+                .collectList()
+                .doOnNext(saved -> {
+                    saved.forEach(index::put);
+                    saved.forEach(cache::invalidate);
+                });
+    }
+
+    public Mono<Void> deleteAll(List<Long> ids) {
+        if (ids.size() > config.getMaxBatchSize()) {
+            return Mono.error(batchTooLarge(ids.size()));
+        }
+        return repo.deleteByIdIn(ids)
+                .doOnSuccess(deleted -> {
+                    ids.forEach(index::remove);
+                    ids.forEach(cache::invalidate);
+                })
+                .then();
+    }
+
+    public BookCacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    private int pageSize(@Nullable Integer limit) {
+        return limit == null ? config.getDefaultPageSize()
+                : Math.max(1, Math.min(limit, config.getMaxPageSize()));
+    }
+
+    // one extra row tells whether a next page exists
+    private static Pageable pageAfter(int size) {
+        return Pageable.from(0, size + 1, Sort.of(Sort.Order.asc("id")));
+    }
+
+    private static Mono<BookPage> titlePage(Flux<BookRow> rows, int size) {
+        return rows.map(BookRow::toBook).collectList().map(books -> BookService.titlePage(books, size));
+    }
+
+    private static Mono<BookPage> page(Flux<BookRow> rows, int size) {
+        return rows.map(BookRow::toBook)
+                .collectList()
+                .map(books -> {
+                    if (books.size() <= size) {
+                        return new BookPage(books, null);
+                    }
+                    List<Book> items = books.subList(0, size);
+                    return new BookPage(items, BookCursor.encode(items.get(size - 1).getId()));
+                });
+    }
+
+    // see BookService: only writes made on other nodes need a reload
+    private void reindex(BookInvalidation invalidation) {
+        Long version = invalidation.version() == BookInvalidation.ANY_VERSION ? null : invalidation.version();
+        if (!index.isCurrent(invalidation.id(), version)) {
+            repo.findById(invalidation.id())
+                    .map(BookRow::toBook)
+                    .doOnNext(index::put)
+                    .switchIfEmpty(Mono.fromRunnable(() -> index.remove(invalidation.id())))
+                    .subscribe();
+        }
+    }
+
+    private IllegalArgumentException batchTooLarge(int size) {
+        return new IllegalArgumentException(
+                "Batch of " + size + " exceeds the limit of " + config.getMaxBatchSize());
+    }
+}
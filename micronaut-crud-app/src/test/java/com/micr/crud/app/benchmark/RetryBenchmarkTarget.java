@@ -0,0 +1,21 @@
+package com.micr.crud.app.benchmark;
+
+import com.micr.crud.app.annotation.RetryOnFailure;
+import jakarta.inject.Singleton;
+
+/**
+ * Bean measured by {@link RetryOnFailureInterceptorBenchmark}: the same work with and without
+ * {@code @RetryOnFailure}.
+ */
+@Singleton
+public class RetryBenchmarkTarget {
+
+    @RetryOnFailure(maxAttempts = 3, delayMs = 10)
+    public long retried(long value) {
+        return value + 1;
+    }
+
+    public long direct(long value) {
+        return value + 1;
+    }
+}
@@ -0,0 +1,57 @@
+package com.micr.crud.app.benchmark;
+
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@code RetryOnFailureInterceptor} on a call that succeeds first time, compared to
+ * calling the same bean method without the annotation.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; add {@code -Djmh.args="RetryOnFailure -prof gc"}
+ * to see allocations per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetryOnFailureInterceptorBenchmark {
+
+    private ApplicationContext context;
+    private RetryBenchmarkTarget target;
+    private long value;
+
+    @Setup
+    public void setUp() {
+        context = ApplicationContext.run();
+        target = context.getBean(RetryBenchmarkTarget.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long direct() {
+        return target.direct(value++);
+    }
+
+    @Benchmark
+    public long intercepted() {
+        return target.retried(value++);
+    }
+}
@@ -1,12 +1,16 @@
 package com.micr.crud.app.integration.controller;
 
+import com.micr.crud.app.dto.BookPage;
 import com.micr.crud.app.entity.Book;
 import com.micr.crud.app.repository.BookRepository;
+import io.micronaut.context.annotation.Property;
 import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.BeforeEach;
@@ -63,6 +67,22 @@ public class BookControllerIntegrationTest {
         assertEquals("New Micronaut Book", createdBook.getTitle());
     }
 
+    @Test
+    void testCreateIgnoresClientSuppliedIdAndVersion() {
+        Book existing = bookRepository.findAll().iterator().next();
+        Book body = new Book(existing.getId(), "Client Chosen Id", "Alice", 7L);
+
+        HttpResponse<Book> response = client.toBlocking().exchange(HttpRequest.POST("/", body), Book.class);
+
+        assertEquals(201, response.getStatus().getCode());
+        Book created = response.body();
+        assertNotNull(created.getId());
+        assertNotEquals(existing.getId(), created.getId());
+        assertEquals(0L, created.getVersion());
+        assertEquals(3, bookRepository.count());
+        assertEquals(existing.getTitle(), bookRepository.findById(existing.getId()).orElseThrow().getTitle());
+    }
+
     @Test
     void testDeleteBook() {
         Book book = bookRepository.save(new Book(null, "Temp Book", "Bob"));
@@ -72,4 +92,138 @@ public class BookControllerIntegrationTest {
         assertEquals(204, response.getStatus().getCode());
         assertFalse(bookRepository.findById(book.getId()).isPresent());
     }
+
+    @Test
+    void testListBooksWithCursor() {
+        BookPage first = client.toBlocking().retrieve(HttpRequest.GET("/?limit=1"), BookPage.class);
+
+        assertEquals(1, first.items().size());
+        assertNotNull(first.nextCursor());
+
+        BookPage second = client.toBlocking().retrieve(
+                HttpRequest.GET("/?limit=1&after=" + first.nextCursor()), BookPage.class);
+
+        assertEquals(1, second.items().size());
+        assertTrue(second.items().get(0).getId() > first.items().get(0).getId());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testListBooksWithInvalidCursor() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/?after=not-a-cursor")));
+
+        assertEquals(400, e.getStatus().getCode());
+    }
+
+    @Test
+    void testListBooksByAuthorAndTitlePrefix() {
+        bookRepository.save(new Book(null, "Micronaut Data", "Jane Doe"));
+
+        BookPage byAuthor = client.toBlocking().retrieve(HttpRequest.GET("/?author=Jane%20Doe&limit=1"), BookPage.class);
+        assertEquals(List.of("Reactive Java"), byAuthor.items().stream().map(Book::getTitle).toList());
+        BookPage next = client.toBlocking().retrieve(
+                HttpRequest.GET("/?author=Jane%20Doe&limit=1&after=" + byAuthor.nextCursor()), BookPage.class);
+        assertEquals(List.of("Micronaut Data"), next.items().stream().map(Book::getTitle).toList());
+        assertNull(next.nextCursor());
+
+        BookPage byTitle = client.toBlocking().retrieve(HttpRequest.GET("/?titlePrefix=Micronaut"), BookPage.class);
+        assertEquals(2, byTitle.items().size());
+        assertEquals(2L, client.toBlocking().retrieve(HttpRequest.GET("/count?author=Jane%20Doe"), Long.class));
+
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/?author=Jane%20Doe&titlePrefix=M")));
+        assertEquals(400, e.getStatus().getCode());
+    }
+
+    @Test
+    void testConditionalGetAnswersNotModified() {
+        Book book = bookRepository.findAll().iterator().next();
+        HttpResponse<Book> first = client.toBlocking().exchange(HttpRequest.GET("/" + book.getId()), Book.class);
+        String etag = first.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotNull(first.getHeaders().get(HttpHeaders.LAST_MODIFIED));
+
+        HttpResponse<?> again = client.toBlocking().exchange(
+                HttpRequest.GET("/" + book.getId()).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(304, again.getStatus().getCode());
+        assertFalse(again.getBody().isPresent());
+
+        HttpResponse<?> list = client.toBlocking().exchange(HttpRequest.GET("/?limit=1"), BookPage.class);
+        String listEtag = list.getHeaders().get(HttpHeaders.ETAG);
+        assertEquals(304, client.toBlocking().exchange(
+                HttpRequest.GET("/?limit=1").header(HttpHeaders.IF_NONE_MATCH, listEtag)).getStatus().getCode());
+
+        client.toBlocking().exchange(HttpRequest.POST("/", new Book(null, "Changes the catalog", "Alice")), Book.class);
+        HttpResponse<BookPage> changed = client.toBlocking().exchange(
+                HttpRequest.GET("/?limit=1").header(HttpHeaders.IF_NONE_MATCH, listEtag), BookPage.class);
+        assertEquals(200, changed.getStatus().getCode());
+        assertNotEquals(listEtag, changed.getHeaders().get(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @Property(name = "books.listing-cache-size", value = "100")
+    void testCachedListingIsReplacedAfterAWrite() {
+        HttpRequest<?> request = HttpRequest.GET("/?limit=10").header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        HttpResponse<BookPage> first = client.toBlocking().exchange(request, BookPage.class);
+        HttpResponse<BookPage> cached = client.toBlocking().exchange(request, BookPage.class);
+        assertEquals(2, cached.body().items().size());
+        assertEquals(first.getHeaders().get(HttpHeaders.ETAG), cached.getHeaders().get(HttpHeaders.ETAG));
+        assertEquals(304, client.toBlocking().exchange(HttpRequest.GET("/?limit=10")
+                .header(HttpHeaders.IF_NONE_MATCH, cached.getHeaders().get(HttpHeaders.ETAG))).getStatus().getCode());
+
+        client.toBlocking().exchange(HttpRequest.POST("/", new Book(null, "Not cached yet", "Alice")), Book.class);
+        HttpResponse<BookPage> changed = client.toBlocking().exchange(request, BookPage.class);
+        assertEquals(3, changed.body().items().size());
+        assertNotEquals(first.getHeaders().get(HttpHeaders.ETAG), changed.getHeaders().get(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testExportBooksAsNdjson() {
+        HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET("/export"), String.class);
+
+        assertEquals(200, response.getStatus().getCode());
+        assertEquals("application/x-ndjson", response.getContentType().orElseThrow().getName());
+        String[] lines = response.body().trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("Micronaut in Action"));
+    }
+
+    @Test
+    void testCreateBooksInBatch() {
+        List<Book> books = List.of(new Book(null, "Batch One", "Alice"), new Book(null, "Batch Two", "Bob"));
+
+        HttpResponse<List<Book>> response = client.toBlocking()
+                .exchange(HttpRequest.POST("/batch", books), Argument.listOf(Book.class));
+
+        assertEquals(201, response.getStatus().getCode());
+        assertEquals(2, response.body().size());
+        assertTrue(response.body().stream().allMatch(b -> b.getId() != null));
+        assertEquals(4, bookRepository.count());
+    }
+
+    @Test
+    void testDeleteBooksInBatch() {
+        List<Long> ids = bookRepository.findAll().stream().map(Book::getId).toList();
+
+        HttpResponse<?> response = client.toBlocking().exchange(
+                HttpRequest.DELETE("/?ids=" + ids.get(0) + "," + ids.get(1)));
+
+        assertEquals(204, response.getStatus().getCode());
+        assertEquals(0, bookRepository.count());
+    }
+
+    @Test
+    void testSearchFindsBooksCreatedThroughTheApi() {
+        client.toBlocking().exchange(HttpRequest.POST("/batch", List.of(
+                new Book(null, "Searchable Micronaut", "Alice"), new Book(null, "Searchable Spring", "Bob"))));
+
+        BookPage page = client.toBlocking().retrieve(HttpRequest.GET("/search?q=searchable%20micro&field=title"), BookPage.class);
+        assertEquals(List.of("Searchable Micronaut"), page.items().stream().map(Book::getTitle).toList());
+        assertNull(page.nextCursor());
+
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/search?q=x&field=isbn")));
+        assertEquals(400, e.getStatus().getCode());
+    }
 }
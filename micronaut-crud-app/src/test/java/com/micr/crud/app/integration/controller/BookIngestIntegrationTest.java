@@ -0,0 +1,50 @@
+package com.micr.crud.app.integration.controller;
+
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.ingest.IngestStatus;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the queue is a conditional bean, so the property must be set before the context starts
+@MicronautTest(transactional = false)
+@Property(name = "books.ingest.enabled", value = "true")
+@Property(name = "books.ingest.log-path", value = "target/book-ingest-it.log")
+public class BookIngestIntegrationTest {
+    @Inject
+    @Client("/books")
+    HttpClient client;
+
+    @Test
+    void testCreateIsQueuedAndCommittedInBackground() throws InterruptedException {
+        HttpResponse<IngestStatus> accepted = client.toBlocking().exchange(
+                HttpRequest.POST("/", new Book(null, "Written behind", "Alice")), IngestStatus.class);
+        assertEquals(202, accepted.getStatus().getCode());
+        String location = accepted.getHeaders().get(HttpHeaders.LOCATION);
+        assertEquals("/books/ingest/" + accepted.body().trackingId(), location);
+
+        IngestStatus status = accepted.body();
+        for (int i = 0; i < 100 && status.state() == IngestStatus.State.QUEUED; i++) {
+            Thread.sleep(50);
+            status = client.toBlocking().retrieve(HttpRequest.GET("/ingest/" + status.trackingId()), IngestStatus.class);
+        }
+        assertEquals(IngestStatus.State.SAVED, status.state());
+        assertEquals("Written behind", client.toBlocking().retrieve(HttpRequest.GET("/" + status.bookId()), Book.class).getTitle());
+    }
+
+    @Test
+    void testUnknownTrackingIdIsNotFound() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.GET("/ingest/unknown"), IngestStatus.class));
+        assertEquals(404, e.getStatus().getCode());
+    }
+}
@@ -0,0 +1,76 @@
+package com.micr.crud.app.integration.controller;
+
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.entity.BookRow;
+import com.micr.crud.app.repository.ReactiveBookRepository;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(environments = "r2dbc", transactional = false)
+public class ReactiveBookControllerIntegrationTest {
+    @Inject
+    @Client("/books")
+    HttpClient client;
+
+    @Inject
+    ReactiveBookRepository bookRepository;
+
+    @BeforeEach
+    void setup() {
+        bookRepository.deleteAll().block();
+        bookRepository.save(new BookRow(null, "Micronaut in Action", "John Doe", null, null)).block();
+        bookRepository.save(new BookRow(null, "Reactive Java", "Jane Doe", null, null)).block();
+    }
+
+    @Test
+    void testListBooks() {
+        HttpResponse<List<Book>> response = client.toBlocking().exchange(HttpRequest.GET("/"), Argument.listOf(Book.class));
+
+        assertEquals(200, response.getStatus().getCode());
+        assertEquals(2, response.body().size());
+    }
+
+    @Test
+    void testCreateAndGetBook() {
+        Book created = client.toBlocking()
+                .exchange(HttpRequest.POST("/", new Book(null, "New Micronaut Book", "Alice")), Book.class)
+                .body();
+
+        assertNotNull(created.getId());
+        Book fetched = client.toBlocking().retrieve(HttpRequest.GET("/" + created.getId()), Book.class);
+        assertEquals("New Micronaut Book", fetched.getTitle());
+    }
+
+    @Test
+    void testListBooksWithCursor() {
+        BookPage first = client.toBlocking().retrieve(HttpRequest.GET("/?limit=1"), BookPage.class);
+        BookPage second = client.toBlocking().retrieve(
+                HttpRequest.GET("/?limit=1&after=" + first.nextCursor()), BookPage.class);
+
+        assertEquals(1, second.items().size());
+        assertTrue(second.items().get(0).getId() > first.items().get(0).getId());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testDeleteBook() {
+        Long id = bookRepository.findAll().blockFirst().id();
+
+        HttpResponse<?> response = client.toBlocking().exchange(HttpRequest.DELETE("/" + id));
+
+        assertEquals(204, response.getStatus().getCode());
+        assertEquals(1L, bookRepository.count().block());
+    }
+}
@@ -0,0 +1,38 @@
+package com.micr.crud.app.integration.crac;
+
+import com.micr.crud.app.crac.BookWarmup;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.repository.BookRepository;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+public class BookWarmupIntegrationTest {
+    @Inject
+    EmbeddedServer server;
+
+    @Inject
+    BookWarmup warmup;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setup() {
+        bookRepository.deleteAll();
+        bookRepository.save(new Book(null, "Micronaut in Action", "John Doe"));
+    }
+
+    @Test
+    void testWarmUpRunsEveryRoundAndLeavesNoBooksBehind() {
+        int requests = warmup.warmUp(server.getURI().resolve("/books"), 3);
+
+        assertEquals(18, requests);
+        assertEquals(1, bookRepository.count());
+    }
+}
@@ -0,0 +1,115 @@
+package com.micr.crud.app.integration.interceptor;
+
+import com.micr.crud.app.annotation.RetryOnFailure;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for @RetryOnFailure on methods returning CompletionStage and Publisher
+ */
+@MicronautTest(transactional = false)
+@DisplayName("Asynchronous RetryOnFailure Integration Tests")
+class AsyncRetryIntegrationTest {
+
+    @Inject
+    private FlakyClient client;
+
+    @BeforeEach
+    void setUp() {
+        client.calls.set(0);
+    }
+
+    @Test
+    @DisplayName("Should return a pending future without waiting for retries")
+    void testCompletionStageRetriesWithoutBlocking() throws Exception {
+        // Act
+        long start = System.nanoTime();
+        CompletableFuture<String> result = client.fetchFuture(2);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsedMs < 200, "caller was blocked for " + elapsedMs + " ms");
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        assertEquals(3, client.calls.get());
+    }
+
+    @Test
+    @DisplayName("Should fail the future once attempts are exhausted")
+    void testCompletionStageFailsAfterMaxAttempts() {
+        // Act
+        CompletableFuture<String> result = client.fetchFuture(5);
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("Operation failed after retries", ex.getCause().getMessage());
+        assertEquals(3, client.calls.get());
+    }
+
+    @Test
+    @DisplayName("Should resubscribe to a Mono until it succeeds")
+    void testMonoRetries() {
+        // Act
+        Mono<String> result = client.fetchMono(2);
+
+        // Assert
+        assertEquals(0, client.calls.get(), "nothing should run before subscription");
+        assertEquals("ok", result.block(Duration.ofSeconds(5)));
+        assertEquals(3, client.calls.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry a Mono failing with an excluded exception")
+    void testMonoExcludedExceptionIsNotRetried() {
+        // Act
+        Mono<String> result = client.fetchMonoRejected();
+
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> result.block(Duration.ofSeconds(5)));
+        assertEquals(1, client.calls.get());
+    }
+
+    @Singleton
+    static class FlakyClient {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        @RetryOnFailure(maxAttempts = 3, delayMs = 300)
+        public CompletableFuture<String> fetchFuture(int failures) {
+            if (calls.incrementAndGet() <= failures) {
+                return CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+            }
+            return CompletableFuture.completedFuture("ok");
+        }
+
+        @RetryOnFailure(maxAttempts = 3, delayMs = 10)
+        public Mono<String> fetchMono(int failures) {
+            return Mono.fromCallable(() -> {
+                if (calls.incrementAndGet() <= failures) {
+                    throw new IllegalStateException("unavailable");
+                }
+                return "ok";
+            });
+        }
+
+        @RetryOnFailure(maxAttempts = 3, delayMs = 10, excludes = IllegalArgumentException.class)
+        public Mono<String> fetchMonoRejected() {
+            return Mono.fromCallable(() -> {
+                calls.incrementAndGet();
+                throw new IllegalArgumentException("rejected");
+            });
+        }
+    }
+}
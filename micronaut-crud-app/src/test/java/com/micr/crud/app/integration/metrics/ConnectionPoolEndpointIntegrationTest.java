@@ -0,0 +1,30 @@
+package com.micr.crud.app.integration.metrics;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false, environments = "dev")
+public class ConnectionPoolEndpointIntegrationTest {
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Test
+    void testPoolEndpointReportsConnectionsAndAcquireHistogram() {
+        client.toBlocking().exchange(HttpRequest.GET("/books/count?author=Nobody"), String.class);
+
+        String pools = client.toBlocking().retrieve(HttpRequest.GET("/pool"));
+
+        assertTrue(pools.contains("\"pending\":0"), "pending connections missing");
+        assertTrue(pools.contains("\"leMillis\":1.0"), "acquire histogram missing");
+
+        String scrape = client.toBlocking().retrieve(HttpRequest.GET("/prometheus"));
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"), "acquire histogram not scraped");
+    }
+}
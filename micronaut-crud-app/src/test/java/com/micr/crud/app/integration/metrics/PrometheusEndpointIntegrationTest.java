@@ -0,0 +1,28 @@
+package com.micr.crud.app.integration.metrics;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false, environments = "dev")
+public class PrometheusEndpointIntegrationTest {
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Test
+    void testScrapeExposesRequestLatencyHistogram() {
+        client.toBlocking().exchange(HttpRequest.GET("/health"), String.class);
+
+        String scrape = client.toBlocking().retrieve(HttpRequest.GET("/prometheus"));
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "latency histogram missing");
+        assertTrue(scrape.contains("uri=\"/health\""), "endpoint tag missing");
+        assertTrue(scrape.contains("jvm_memory_used_bytes"), "JVM metrics missing");
+    }
+}
@@ -0,0 +1,35 @@
+package com.micr.crud.app.integration.metrics;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// outside the dev environment the metrics and the pool internals need an authenticated caller
+@MicronautTest(transactional = false)
+public class SensitiveEndpointsIntegrationTest {
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Test
+    void testPrometheusIsNotPublic() {
+        assertUnauthorized("/prometheus");
+    }
+
+    @Test
+    void testPoolIsNotPublic() {
+        assertUnauthorized("/pool");
+    }
+
+    private void assertUnauthorized(String path) {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().retrieve(HttpRequest.GET(path)));
+        assertEquals(401, e.getStatus().getCode());
+    }
+}
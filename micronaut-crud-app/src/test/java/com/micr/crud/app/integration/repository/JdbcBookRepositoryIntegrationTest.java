@@ -0,0 +1,100 @@
+package com.micr.crud.app.integration.repository;
+
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.repository.BookRepository;
+import com.micr.crud.app.repository.JdbcBookRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+@Property(name = "books.persistence", value = "jdbc")
+public class JdbcBookRepositoryIntegrationTest {
+    @Inject
+    @Client("/books")
+    HttpClient client;
+
+    @Inject
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setup() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void testJdbcRepositoryIsSelected() {
+        assertInstanceOf(JdbcBookRepository.class, bookRepository);
+    }
+
+    @Test
+    void testSaveAssignsIdAndVersion() {
+        Book saved = bookRepository.save(new Book("Micronaut in Action", "John Doe"));
+
+        assertNotNull(saved.getId());
+        assertEquals(0L, saved.getVersion());
+
+        saved.setTitle("Micronaut in Action, 2nd ed.");
+        Book updated = bookRepository.update(saved);
+
+        assertEquals(1L, updated.getVersion());
+        assertEquals("Micronaut in Action, 2nd ed.", bookRepository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void testKeysetPageAndBatchDelete() {
+        List<Book> saved = bookRepository.saveAll(List.of(
+                new Book("One", "Alice"), new Book("Two", "Bob"), new Book("Three", "Carol")));
+        Long firstId = saved.get(0).getId();
+
+        List<Book> page = bookRepository.findByIdGreaterThan(firstId,
+                Pageable.from(0, 10, Sort.of(Sort.Order.asc("id"))));
+        assertEquals(List.of("Two", "Three"), page.stream().map(Book::getTitle).toList());
+
+        bookRepository.deleteByIdIn(page.stream().map(Book::getId).toList());
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    void testTitlePrefixPagesByTitleAndId() {
+        bookRepository.saveAll(List.of(new Book("Micronaut B", "Alice"),
+                new Book("Micronaut A", "Bob"), new Book("Micronaut A", "Carol"), new Book("Micronaut A", "Dave"),
+                new Book("Other", "Eve")));
+
+        List<String> authors = new ArrayList<>();
+        String after = null;
+        do {
+            String query = after == null ? "" : "&after=" + after;
+            BookPage page = client.toBlocking().retrieve(
+                    HttpRequest.GET("/?titlePrefix=Micronaut&limit=2" + query), BookPage.class);
+            page.items().forEach(book -> authors.add(book.getAuthor()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(List.of("Bob", "Carol", "Dave", "Alice"), authors);
+    }
+
+    @Test
+    void testCreateBookThroughController() {
+        HttpResponse<String> response = client.toBlocking().exchange(
+                HttpRequest.POST("/", "{\"title\":\"New Micronaut Book\",\"author\":\"Alice\"}"), String.class);
+
+        assertEquals(201, response.getStatus().getCode());
+        assertTrue(response.body().contains("\"id\":"));
+        assertEquals(1, bookRepository.count());
+    }
+}
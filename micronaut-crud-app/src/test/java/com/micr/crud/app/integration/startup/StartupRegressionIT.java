@@ -0,0 +1,97 @@
+package com.micr.crud.app.integration.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the packaged jar in a fresh JVM and reports the time to the first answered {@code GET /books}
+ * and the number of classes loaded by then. Each fails the build when it exceeds its budget
+ * ({@code startup.max-millis}, {@code startup.max-classes}); a budget that is not set is only reported.
+ * Runs after {@code package} in the {@code startup} profile, so with {@code -Paot} it checks the
+ * AOT-optimized jar.
+ */
+public class StartupRegressionIT {
+
+    private static final Duration GIVE_UP_AFTER = Duration.ofMinutes(2);
+
+    @Test
+    void testStartupStaysWithinBudget() throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar"));
+        Long maxMillis = Long.getLong("startup.max-millis");
+        Long maxClasses = Long.getLong("startup.max-classes");
+        Path dir = Files.createDirectories(jar.resolveSibling("startup"));
+        Path classLog = dir.resolve("class-load.log");
+        Files.deleteIfExists(classLog);
+
+        int port = freePort();
+        ProcessBuilder builder = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xlog:class+load=info:file=" + classLog,
+                "-jar", jar.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("app.log").toFile());
+        builder.environment().put("MICRONAUT_SERVER_PORT", String.valueOf(port));
+
+        long start = System.nanoTime();
+        Process app = builder.start();
+        try {
+            awaitFirstResponse(app, URI.create("http://localhost:" + port + "/books"));
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long classes;
+            try (Stream<String> lines = Files.lines(classLog)) {
+                classes = lines.count();
+            }
+            System.out.printf("startup: first request after %d ms (budget %s), %d classes loaded (budget %s)%n",
+                    millis, maxMillis, classes, maxClasses);
+
+            if (maxMillis != null) {
+                assertTrue(millis <= maxMillis, "first request after " + millis + " ms, budget is " + maxMillis);
+            }
+            if (maxClasses != null) {
+                assertTrue(classes <= maxClasses, classes + " classes loaded, budget is " + maxClasses);
+            }
+        } finally {
+            app.destroy();
+            app.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void awaitFirstResponse(Process app, URI uri) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + GIVE_UP_AFTER.toNanos();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            while (true) {
+                assertTrue(app.isAlive(),
+                        () -> "application exited with " + app.exitValue() + ", see startup/app.log");
+                assertTrue(System.nanoTime() < deadline, "no response within " + GIVE_UP_AFTER);
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    assertEquals(200, response.statusCode());
+                    return;
+                } catch (ConnectException notListeningYet) {
+                    Thread.sleep(5);
+                }
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.micr.crud.app.unit.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micr.crud.app.cache.BookCache;
+import com.micr.crud.app.cache.BookInvalidation;
+import com.micr.crud.app.cache.LocalBookInvalidationBus;
+import com.micr.crud.app.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookCache Tests")
+class BookCacheTest {
+
+    private LocalBookInvalidationBus bus;
+    private BookCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        bus = new LocalBookInvalidationBus();
+        cache = newCache();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should evict a cached book when a newer version is invalidated")
+    void testNewerInvalidationEvicts() {
+        cache.get(1L, loader(new Book(1L, "Title", "Author", 1L)));
+
+        bus.publish(new BookInvalidation(1L, 2L));
+        cache.get(1L, loader(new Book(1L, "Title v2", "Author", 2L)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should ignore an invalidation older than the cached version")
+    void testOutOfOrderInvalidationIsIgnored() {
+        cache.get(1L, loader(new Book(1L, "Title", "Author", 3L)));
+
+        bus.publish(new BookInvalidation(1L, 2L));
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Old", "Author", 2L)));
+
+        assertEquals(1, loads.get());
+        assertEquals("Title", book.orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that read a version older than an invalidation")
+    void testStaleLoadIsNotCached() {
+        bus.publish(new BookInvalidation(1L, 3L));
+
+        cache.get(1L, loader(new Book(1L, "Stale", "Author", 2L)));
+        cache.get(1L, loader(new Book(1L, "Fresh", "Author", 3L)));
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Fresh", "Author", 3L)));
+
+        assertEquals(2, loads.get());
+        assertEquals("Fresh", book.orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should evict the book on every cache subscribed to the bus")
+    void testInvalidationReachesOtherNodes() {
+        BookCache otherNode = newCache();
+        Book book = new Book(1L, "Title", "Author", 1L);
+        cache.get(1L, loader(book));
+        otherNode.get(1L, loader(book));
+
+        cache.invalidate(1L);
+        otherNode.get(1L, loader(book));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not keep a load when the invalidation arrives while it is being cached")
+    void testInvalidationDuringPutIsNotLost() throws Exception {
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        // the write of version 2 is published from another thread while the loaded version 1 is copied
+        // into the cache, i.e. after the superseded check; it gets 200 ms to be delivered
+        Book racing = new Book(1L, "Stale", "Author", 1L) {
+            @Override
+            public String getTitle() {
+                if (writer.get() == null) {
+                    writer.set(Thread.ofPlatform().start(() -> bus.publish(new BookInvalidation(1L, 2L))));
+                    try {
+                        writer.get().join(200);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.getTitle();
+            }
+        };
+
+        cache.get(1L, loader(racing));
+        writer.get().join();
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Fresh", "Author", 2L)));
+
+        assertEquals(2, loads.get());
+        assertEquals("Fresh", book.orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should invalidate a write without a version as one past the cached version")
+    void testWriteWithoutVersionDoesNotDisableCaching() {
+        cache.get(1L, loader(new Book(1L, "Title", "Author", 3L)));
+
+        cache.invalidate(new Book(1L, "Title v4", "Author", null));
+        cache.get(1L, loader(new Book(1L, "Title v4", "Author", 4L)));
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Title v4", "Author", 4L)));
+
+        assertEquals(2, loads.get());
+        assertEquals("Title v4", book.orElseThrow().getTitle());
+    }
+
+    private BookCache newCache() {
+        return new BookCache(Caffeine.newBuilder().recordStats().build(), bus, Duration.ofMinutes(1));
+    }
+
+    private Function<Long, Optional<Book>> loader(Book book) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.of(book);
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.micr.crud.app.unit.cache;
+
+import com.micr.crud.app.cache.BookInvalidation;
+import com.micr.crud.app.cache.BookListingCache;
+import com.micr.crud.app.cache.LocalBookInvalidationBus;
+import com.micr.crud.app.cache.SerializedPage;
+import io.micronaut.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookListingCache Tests")
+class BookListingCacheTest {
+
+    private static final BookListingCache.Query FIRST_PAGE = new BookListingCache.Query(null, 20, null, null);
+
+    private final JsonMapper jsonMapper = JsonMapper.createDefault();
+    private LocalBookInvalidationBus bus;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        bus = new LocalBookInvalidationBus();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should serve a page from memory until a book is invalidated")
+    void testHitUntilInvalidation() {
+        BookListingCache cache = new BookListingCache(jsonMapper, bus, 10);
+
+        SerializedPage first = cache.get(FIRST_PAGE, () -> "\"1\"", body(List.of("a", "b")));
+        SerializedPage second = cache.get(FIRST_PAGE, () -> "\"1\"", body(List.of("a", "b")));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        bus.publish(BookInvalidation.deleted(1L));
+        SerializedPage reloaded = cache.get(FIRST_PAGE, () -> "\"2\"", body(List.of("a")));
+        assertEquals(2, loads.get());
+        assertEquals("\"2\"", reloaded.etag());
+        assertEquals("[\"a\"]", new String(reloaded.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should keep different queries apart and build every page when disabled")
+    void testQueriesAndDisabledCache() {
+        BookListingCache cache = new BookListingCache(jsonMapper, bus, 10);
+        cache.get(FIRST_PAGE, () -> "\"1\"", body(List.of("a")));
+        cache.get(new BookListingCache.Query(null, 20, "Alice", null), () -> "\"1\"", body(List.of("a")));
+        assertEquals(2, loads.get());
+
+        BookListingCache disabled = new BookListingCache(jsonMapper, bus, 0);
+        assertFalse(disabled.isEnabled());
+        disabled.get(FIRST_PAGE, () -> "\"1\"", body(List.of("a")));
+        disabled.get(FIRST_PAGE, () -> "\"1\"", body(List.of("a")));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should store the gzip encoding only when it is smaller than the JSON")
+    void testGzipEncoding() throws IOException {
+        BookListingCache cache = new BookListingCache(jsonMapper, bus, 10);
+
+        SerializedPage large = cache.get(FIRST_PAGE, () -> "\"1\"", body(List.of("Title ".repeat(200))));
+        assertNotNull(large.gzip());
+        assertTrue(large.gzip().length < large.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.gzip()))) {
+            assertArrayEquals(large.json(), in.readAllBytes());
+        }
+
+        SerializedPage tiny = cache.get(new BookListingCache.Query("MQ", 1, null, null), () -> "\"1\"", body(List.of()));
+        assertNull(tiny.gzip());
+    }
+
+    @Test
+    @DisplayName("Should subscribe to the loaders only on a miss")
+    void testAsyncLoadsOnMiss() {
+        BookListingCache cache = new BookListingCache(jsonMapper, bus, 10);
+        Mono<String> etag = Mono.fromSupplier(() -> "\"1\"");
+        Mono<List<String>> body = Mono.fromSupplier(body(List.of("a")));
+
+        SerializedPage first = cache.getAsync(FIRST_PAGE, etag, body).block();
+        SerializedPage second = cache.getAsync(FIRST_PAGE, etag, body).block();
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    private <T> Supplier<T> body(T value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.micr.crud.app.unit.cache;
+
+import com.micr.crud.app.cache.BookInvalidation;
+import com.micr.crud.app.cache.InvalidationConfiguration;
+import com.micr.crud.app.cache.MulticastBookInvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MulticastBookInvalidationBus Tests")
+class MulticastBookInvalidationBusTest {
+
+    private MulticastBookInvalidationBus sender;
+    private MulticastBookInvalidationBus receiver;
+    private final List<BookInvalidation> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        InvalidationConfiguration config = new InvalidationConfiguration();
+        config.setPort(ThreadLocalRandom.current().nextInt(40_000, 50_000));
+        sender = new MulticastBookInvalidationBus(config);
+        receiver = new MulticastBookInvalidationBus(config);
+        sender.afterRestore(null);
+        receiver.afterRestore(null);
+        receiver.subscribe(received::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.beforeCheckpoint(null);
+        receiver.beforeCheckpoint(null);
+    }
+
+    @Test
+    @DisplayName("Should deliver an invalidation published by another node")
+    void testDeliversToOtherNodes() throws Exception {
+        sender.publish(new BookInvalidation(1L, 2L));
+
+        await(() -> received.size() == 1);
+        assertEquals(new BookInvalidation(1L, 2L), received.get(0));
+    }
+
+    @Test
+    @DisplayName("Should end the receiver of a closed socket and deliver once after a restore")
+    void testRestoreReplacesTheReceiver() throws Exception {
+        receiver.beforeCheckpoint(null);
+        receiver.afterRestore(null);
+        receiver.beforeCheckpoint(null);
+        receiver.afterRestore(null);
+
+        sender.publish(new BookInvalidation(1L, 2L));
+
+        await(() -> received.size() == 1);
+        // two receivers, one per bus: the threads of the closed sockets have exited
+        await(() -> receiverThreads() == 2);
+        Thread.sleep(100);
+        assertEquals(List.of(new BookInvalidation(1L, 2L)), received);
+    }
+
+    private static long receiverThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("book-invalidation-receiver"))
+                .count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.micr.crud.app.unit.config;
+
+import com.micr.crud.app.config.HikariPoolSizer;
+import io.micronaut.configuration.jdbc.hikari.DatasourceConfiguration;
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.BeanCreatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("HikariPoolSizer Tests")
+class HikariPoolSizerTest {
+
+    @Test
+    @DisplayName("Should size the pool from the CPU count when not configured")
+    @SuppressWarnings("unchecked")
+    void testSizesUnconfiguredPool() {
+        Environment environment = mock(Environment.class);
+        BeanCreatedEvent<DatasourceConfiguration> event = mock(BeanCreatedEvent.class);
+        DatasourceConfiguration config = new DatasourceConfiguration("default");
+        when(event.getBean()).thenReturn(config);
+
+        new HikariPoolSizer(environment).onCreated(event);
+
+        assertEquals(HikariPoolSizer.poolSize(Runtime.getRuntime().availableProcessors()),
+                config.getMaximumPoolSize());
+    }
+
+    @Test
+    @DisplayName("Should keep an explicitly configured pool size")
+    @SuppressWarnings("unchecked")
+    void testKeepsConfiguredPoolSize() {
+        Environment environment = mock(Environment.class);
+        when(environment.containsProperty("datasources.default.maximum-pool-size")).thenReturn(true);
+        BeanCreatedEvent<DatasourceConfiguration> event = mock(BeanCreatedEvent.class);
+        DatasourceConfiguration config = new DatasourceConfiguration("default");
+        config.setMaximumPoolSize(7);
+        when(event.getBean()).thenReturn(config);
+
+        new HikariPoolSizer(environment).onCreated(event);
+
+        assertEquals(7, config.getMaximumPoolSize());
+    }
+
+    @Test
+    @DisplayName("Should allow two connections per core plus one")
+    void testPoolSizeFormula() {
+        assertEquals(3, HikariPoolSizer.poolSize(1));
+        assertEquals(17, HikariPoolSizer.poolSize(8));
+    }
+}
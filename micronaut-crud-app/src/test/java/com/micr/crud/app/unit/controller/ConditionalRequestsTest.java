@@ -0,0 +1,54 @@
+package com.micr.crud.app.unit.controller;
+
+import com.micr.crud.app.controller.ConditionalRequests;
+import com.micr.crud.app.dto.CatalogVersion;
+import com.micr.crud.app.entity.Book;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConditionalRequests Tests")
+class ConditionalRequestsTest {
+
+    private static final Instant UPDATED = Instant.parse("2024-05-01T10:15:30.250Z");
+
+    @Test
+    @DisplayName("Should build ETags from the book version and the catalog version")
+    void testEtags() {
+        assertEquals("\"7.3\"", ConditionalRequests.etag(new Book(7L, "Title", "Author", 3L)));
+        assertNull(ConditionalRequests.etag(new Book(7L, "Title", "Author")));
+        assertEquals("\"2-1714558530.250000000\"", ConditionalRequests.etag(new CatalogVersion(2, UPDATED)));
+        assertEquals("\"0-0\"", ConditionalRequests.etag(new CatalogVersion(0, null)));
+    }
+
+    @Test
+    @DisplayName("Should match If-None-Match weakly, in lists and as a wildcard")
+    void testIfNoneMatch() {
+        assertTrue(notModified(HttpHeaders.IF_NONE_MATCH, "\"7.3\""));
+        assertTrue(notModified(HttpHeaders.IF_NONE_MATCH, "\"7.1\", W/\"7.3\""));
+        assertTrue(notModified(HttpHeaders.IF_NONE_MATCH, "*"));
+        assertFalse(notModified(HttpHeaders.IF_NONE_MATCH, "\"7.2\""));
+        assertFalse(ConditionalRequests.isNotModified(HttpRequest.GET("/books/7"), "\"7.3\"", UPDATED));
+    }
+
+    @Test
+    @DisplayName("Should compare If-Modified-Since in whole seconds, unless If-None-Match is present")
+    void testIfModifiedSince() {
+        assertTrue(notModified(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:30 GMT"));
+        assertFalse(notModified(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:29 GMT"));
+
+        HttpRequest<?> both = HttpRequest.GET("/books/7")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"7.2\"")
+                .header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:15:30 GMT");
+        assertFalse(ConditionalRequests.isNotModified(both, "\"7.3\"", UPDATED));
+    }
+
+    private static boolean notModified(String header, String value) {
+        return ConditionalRequests.isNotModified(HttpRequest.GET("/books/7").header(header, value), "\"7.3\"", UPDATED);
+    }
+}
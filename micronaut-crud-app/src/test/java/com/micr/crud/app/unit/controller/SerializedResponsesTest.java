@@ -0,0 +1,49 @@
+package com.micr.crud.app.unit.controller;
+
+import com.micr.crud.app.cache.SerializedPage;
+import com.micr.crud.app.controller.SerializedResponses;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SerializedResponses Tests")
+class SerializedResponsesTest {
+
+    private static final byte[] JSON = {'[', ']'};
+    private static final byte[] GZIP = {1};
+
+    @Test
+    @DisplayName("Should read Accept-Encoding from the request")
+    void testAcceptsGzip() {
+        assertTrue(acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertFalse(acceptsGzip("gzip;q=0"));
+        assertFalse(SerializedResponses.acceptsGzip(HttpRequest.GET("/books")));
+    }
+
+    @Test
+    @DisplayName("Should send the gzip encoding to clients that accept it")
+    void testOk() {
+        SerializedPage page = new SerializedPage("\"2-0\"", JSON, GZIP);
+
+        MutableHttpResponse<byte[]> gzip = SerializedResponses.ok(page,
+                HttpRequest.GET("/books").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        assertSame(GZIP, gzip.body());
+        assertEquals("gzip", gzip.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzip.getHeaders().get(HttpHeaders.VARY));
+        assertEquals("\"2-0\"", gzip.getHeaders().get(HttpHeaders.ETAG));
+
+        MutableHttpResponse<byte[]> identity = SerializedResponses.ok(page, HttpRequest.GET("/books"));
+        assertSame(JSON, identity.body());
+        assertNull(identity.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+        assertSame(JSON, SerializedResponses.ok(new SerializedPage("\"2-0\"", JSON, null),
+                HttpRequest.GET("/books").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).body());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return SerializedResponses.acceptsGzip(HttpRequest.GET("/books").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+}
@@ -0,0 +1,74 @@
+package com.micr.crud.app.unit.crac;
+
+import com.micr.crud.app.crac.HikariCracResource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HikariCracResource Tests")
+class HikariCracResourceTest {
+
+    private HikariDataSource pool;
+    private HikariCracResource resource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:cracTest;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMinimumIdle(2);
+        config.setMaximumPoolSize(4);
+        config.setConnectionTimeout(250);
+        config.setAllowPoolSuspension(true);
+        pool = new HikariDataSource(config);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists book (title varchar(255))");
+            statement.execute("delete from book");
+            statement.execute("insert into book values ('Micronaut in Action')");
+        }
+        resource = new HikariCracResource(List.of(pool));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should close every connection before checkpoint and reconnect after restore")
+    void testClosesAndReopensConnections() throws Exception {
+        resource.beforeCheckpoint(null);
+
+        assertEquals(0, pool.getHikariPoolMXBean().getTotalConnections());
+
+        resource.afterRestore(null);
+
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select title from book")) {
+            assertTrue(rows.next());
+            assertEquals("Micronaut in Action", rows.getString(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse the checkpoint while a connection stays in use")
+    void testFailsWhileConnectionInUse() throws Exception {
+        try (Connection ignored = pool.getConnection()) {
+            assertThrows(IllegalStateException.class, () -> resource.beforeCheckpoint(null));
+        }
+
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.isValid(1), "pool is resumed after a failed checkpoint");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.micr.crud.app.unit.interceptor;
+
+import com.micr.crud.app.interceptor.CircuitBreaker;
+import com.micr.crud.app.interceptor.CircuitBreaker.State;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30), Duration.ofSeconds(10), clock::get);
+
+    @Test
+    @DisplayName("Should open after consecutive failures only")
+    void testOpensAfterThreshold() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.state());
+
+        breaker.onFailure();
+
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should let a single trial through after the reset timeout")
+    void testHalfOpenAdmitsOneTrial() {
+        open();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should close on a successful trial and reopen on a failed one")
+    void testTrialOutcome() {
+        open();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.state());
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should reopen when the trial does not report back within the trial timeout")
+    void testHungTrialReopens() {
+        open();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(State.OPEN, breaker.state());
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should reopen when the trial is abandoned, and ignore abandoned calls while closed")
+    void testAbandonedTrialReopens() {
+        breaker.onAbandoned();
+        assertEquals(State.CLOSED, breaker.state());
+
+        open();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        breaker.tryAcquire();
+        breaker.onAbandoned();
+
+        assertEquals(State.OPEN, breaker.state());
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.micr.crud.app.unit.interceptor;
+
+import com.micr.crud.app.interceptor.RetryBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RetryBudget Tests")
+class RetryBudgetTest {
+
+    private long now;
+
+    @Test
+    @DisplayName("Should allow retries up to the ratio of first attempts")
+    void testRetriesAreCappedByRatio() {
+        RetryBudget budget = new RetryBudget(0.2, 0, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 20; i++) {
+            budget.recordRequest(now);
+        }
+
+        assertTrue(budget.tryAcquireRetry(now));
+        assertTrue(budget.tryAcquireRetry(now));
+        assertTrue(budget.tryAcquireRetry(now));
+        assertTrue(budget.tryAcquireRetry(now));
+        assertFalse(budget.tryAcquireRetry(now));
+    }
+
+    @Test
+    @DisplayName("Should always allow the minimum number of retries")
+    void testMinimumRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0.2, 2, Duration.ofSeconds(10));
+
+        assertTrue(budget.tryAcquireRetry(now));
+        assertTrue(budget.tryAcquireRetry(now));
+        assertFalse(budget.tryAcquireRetry(now));
+    }
+
+    @Test
+    @DisplayName("Should forget spent retries once they leave the window")
+    void testWindowSlides() {
+        RetryBudget budget = new RetryBudget(0.2, 1, Duration.ofSeconds(10));
+        assertTrue(budget.tryAcquireRetry(now));
+        assertFalse(budget.tryAcquireRetry(now));
+
+        now += Duration.ofSeconds(11).toNanos();
+
+        assertTrue(budget.tryAcquireRetry(now));
+    }
+}
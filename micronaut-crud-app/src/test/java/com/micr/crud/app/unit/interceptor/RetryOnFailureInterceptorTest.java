@@ -1,18 +1,34 @@
 package com.micr.crud.app.unit.interceptor;
 
 import com.micr.crud.app.annotation.RetryOnFailure;
+import com.micr.crud.app.interceptor.CircuitOpenException;
+import com.micr.crud.app.interceptor.RetryConfiguration;
 import com.micr.crud.app.interceptor.RetryOnFailureInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micronaut.aop.MethodInvocationContext;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.type.ReturnType;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.scheduling.ScheduledExecutorTaskScheduler;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,10 +50,35 @@ class RetryOnFailureInterceptorTest {
     @Mock
     private AnnotationValue<RetryOnFailure> annotationValue;
 
+    @Mock
+    private ReturnType<Object> returnType;
+
+    @Mock
+    private ExecutableMethod<Object, Object> executableMethod;
+
+    private RetryConfiguration config;
+
+    private MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService scheduler;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        interceptor = new RetryOnFailureInterceptor();
+        when(returnType.getType()).thenReturn(Object.class);
+        when(context.getReturnType()).thenReturn(returnType);
+        when(context.getExecutableMethod()).thenReturn(executableMethod);
+        when(context.getDeclaringType()).thenReturn(Object.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        config = new RetryConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RetryOnFailureInterceptor(ConversionService.SHARED,
+                new ScheduledExecutorTaskScheduler(scheduler), config, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
     }
 
     @Test
@@ -224,4 +265,159 @@ class RetryOnFailureInterceptorTest {
         // Assert - should complete without hanging
         assertTrue(true);
     }
+
+    @Test
+    @DisplayName("Should fail fast on an excluded exception")
+    void testExcludedExceptionIsNotRetried() {
+        // Arrange
+        IllegalStateException failure = new IllegalStateException("Constraint violated");
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(3));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(annotationValue.classValues("excludes")).thenReturn(new Class<?>[]{IllegalStateException.class});
+        when(context.getMethodName()).thenReturn("testMethod");
+        when(context.proceed()).thenThrow(failure);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> interceptor.intercept(context));
+
+        assertSame(failure, exception);
+        verify(context, times(1)).proceed();
+    }
+
+    @Test
+    @DisplayName("Should only retry exceptions caused by an included type")
+    void testOnlyIncludedExceptionsAreRetried() {
+        // Arrange
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(3));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(annotationValue.classValues("includes")).thenReturn(new Class<?>[]{TimeoutException.class});
+        when(context.getMethodName()).thenReturn("testMethod");
+        when(context.proceed())
+                .thenThrow(new RuntimeException("Lock timeout", new TimeoutException()))
+                .thenThrow(new IllegalArgumentException("Bad input"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> interceptor.intercept(context));
+        verify(context, times(2)).proceed();
+    }
+
+    @Test
+    @DisplayName("Should fail fast without calling the method while its circuit is open")
+    void testOpenCircuitFailsFast() {
+        // Arrange
+        config.setBreakerFailureThreshold(2);
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(3));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(context.getMethodName()).thenReturn("testMethod");
+        when(context.proceed()).thenThrow(new RuntimeException("Database down"));
+
+        // Act & Assert - the second failure opens the circuit, so the third attempt is skipped
+        assertThrows(CircuitOpenException.class, () -> interceptor.intercept(context));
+        assertThrows(CircuitOpenException.class, () -> interceptor.intercept(context));
+        verify(context, times(2)).proceed();
+    }
+
+    @Test
+    @DisplayName("Should reopen the circuit when a half-open trial publisher is cancelled")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void testCancelledTrialReopensCircuit() {
+        // Arrange - one failure opens the circuit, which half-opens again right away
+        config.setBreakerFailureThreshold(1);
+        config.setBreakerResetTimeout(Duration.ZERO);
+        when(returnType.getType()).thenReturn((Class) Flux.class);
+        when(returnType.asArgument()).thenReturn((Argument) Argument.of(Flux.class, Object.class));
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(1));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(context.getMethodName()).thenReturn("stream");
+        when(context.proceed(any()))
+                .thenReturn(Flux.error(new RuntimeException("Database down")))
+                .thenReturn(Flux.never())
+                .thenReturn(Flux.just("recovered"));
+
+        // Act - the trial never answers and its subscriber goes away
+        assertThrows(RuntimeException.class, () -> ((Flux<Object>) interceptor.intercept(context)).blockLast());
+        Disposable trial = ((Flux<Object>) interceptor.intercept(context)).subscribe();
+        trial.dispose();
+
+        // Assert - the next call gets a new trial instead of failing fast forever
+        assertEquals(1, meterRegistry.get("retry.circuit.state").tag("method", "Object.stream").gauge().value());
+        assertEquals("recovered", ((Flux<Object>) interceptor.intercept(context)).blockLast());
+        assertEquals(0, meterRegistry.get("retry.circuit.state").tag("method", "Object.stream").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the retry budget is spent")
+    void testExhaustedBudgetFailsFast() {
+        // Arrange
+        config.setBudgetRatio(0);
+        config.setBudgetMinRetries(1);
+        config.setBreakerFailureThreshold(100);
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(3));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(context.getMethodName()).thenReturn("testMethod");
+        when(context.proceed()).thenThrow(new RuntimeException("Database down"));
+
+        // Act
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> interceptor.intercept(context));
+
+        // Assert - one retry was allowed, the second was refused
+        assertEquals("Retry budget exhausted", exception.getMessage());
+        verify(context, times(2)).proceed();
+    }
+
+    @Test
+    @DisplayName("Should resolve the annotation once per method")
+    void testPolicyIsResolvedOnce() {
+        // Arrange
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(3));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(context.proceed()).thenReturn("Success");
+
+        // Act
+        interceptor.intercept(context);
+        interceptor.intercept(context);
+        interceptor.intercept(context);
+
+        // Assert
+        verify(annotationMetadata, times(1)).getAnnotation(RetryOnFailure.class);
+        verify(annotationValue, times(1)).intValue("maxAttempts");
+        verify(context, times(3)).proceed();
+    }
+
+    @Test
+    @DisplayName("Should count outcomes and retries per method")
+    void testMetricsAreRecorded() {
+        // Arrange
+        when(context.getAnnotationMetadata()).thenReturn(annotationMetadata);
+        when(annotationMetadata.getAnnotation(RetryOnFailure.class)).thenReturn(annotationValue);
+        when(annotationValue.intValue("maxAttempts")).thenReturn(OptionalInt.of(3));
+        when(annotationValue.longValue("delayMs")).thenReturn(OptionalLong.of(10L));
+        when(context.getMethodName()).thenReturn("save");
+        when(context.proceed())
+                .thenReturn("first")
+                .thenThrow(new RuntimeException("Lock timeout"))
+                .thenReturn("second");
+
+        // Act
+        interceptor.intercept(context);
+        interceptor.intercept(context);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("retry.calls").tags("method", "Object.save", "outcome", "success").counter().count());
+        assertEquals(1, meterRegistry.get("retry.calls").tags("method", "Object.save", "outcome", "recovered").counter().count());
+        assertEquals(1, meterRegistry.get("retry.attempts").tag("method", "Object.save").counter().count());
+        assertEquals(0, meterRegistry.get("retry.circuit.state").tag("method", "Object.save").gauge().value());
+    }
 }
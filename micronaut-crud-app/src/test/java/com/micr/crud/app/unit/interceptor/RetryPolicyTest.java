@@ -0,0 +1,55 @@
+package com.micr.crud.app.unit.interceptor;
+
+import com.micr.crud.app.annotation.RetryOnFailure.Jitter;
+import com.micr.crud.app.interceptor.RetryPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RetryPolicy Tests")
+class RetryPolicyTest {
+
+    @Test
+    @DisplayName("Should grow the delay exponentially up to maxDelayMs")
+    void testExponentialBackoffIsCapped() {
+        RetryPolicy policy = policy(Jitter.NONE);
+
+        assertEquals(100, policy.nextDelay(1, 100));
+        assertEquals(200, policy.nextDelay(2, 100));
+        assertEquals(400, policy.nextDelay(3, 200));
+        assertEquals(1000, policy.nextDelay(10, 400));
+    }
+
+    @Test
+    @DisplayName("Should keep jittered delays within their bounds")
+    void testJitterBounds() {
+        RetryPolicy full = policy(Jitter.FULL);
+        RetryPolicy equal = policy(Jitter.EQUAL);
+        RetryPolicy decorrelated = policy(Jitter.DECORRELATED);
+
+        for (int i = 0; i < 1_000; i++) {
+            long fullDelay = full.nextDelay(3, 200);
+            assertTrue(fullDelay >= 0 && fullDelay <= 400, "full: " + fullDelay);
+            long equalDelay = equal.nextDelay(3, 200);
+            assertTrue(equalDelay >= 200 && equalDelay <= 400, "equal: " + equalDelay);
+            long decorrelatedDelay = decorrelated.nextDelay(3, 200);
+            assertTrue(decorrelatedDelay >= 100 && decorrelatedDelay <= 600, "decorrelated: " + decorrelatedDelay);
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply includes and excludes to the cause chain")
+    void testRetryableMatchesCauses() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 2.0, 1000, Jitter.NONE,
+                new Class<?>[]{IllegalStateException.class}, new Class<?>[]{UnsupportedOperationException.class});
+
+        assertTrue(policy.isRetryable(new RuntimeException(new IllegalStateException())));
+        assertFalse(policy.isRetryable(new IllegalArgumentException()));
+        assertFalse(policy.isRetryable(new IllegalStateException(new UnsupportedOperationException())));
+    }
+
+    private RetryPolicy policy(Jitter jitter) {
+        return new RetryPolicy(3, 100, 2.0, 1000, jitter, null, null);
+    }
+}
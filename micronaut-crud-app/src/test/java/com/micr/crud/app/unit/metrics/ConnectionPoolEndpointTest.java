@@ -0,0 +1,100 @@
+package com.micr.crud.app.unit.metrics;
+
+import com.micr.crud.app.metrics.ConnectionAcquireHistogram;
+import com.micr.crud.app.metrics.ConnectionPoolEndpoint;
+import com.micr.crud.app.metrics.PoolDiagnostics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConnectionPoolEndpoint Tests")
+class ConnectionPoolEndpointTest {
+
+    private HikariDataSource dataSource;
+    private ConnectionPoolEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new ConnectionAcquireHistogram());
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:pool-endpoint");
+        config.setPoolName("test-pool");
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(5000);
+        config.setMetricRegistry(registry);
+        dataSource = new HikariDataSource(config);
+        endpoint = new ConnectionPoolEndpoint(List.of(dataSource), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should report the connections in use and the threads waiting for one")
+    void testReportsActiveAndPending() throws Exception {
+        Thread waiter;
+        try (Connection held = dataSource.getConnection()) {
+            waiter = Thread.ofPlatform().start(() -> {
+                try (Connection ignored = dataSource.getConnection()) {
+                    // released as soon as it is acquired
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            PoolDiagnostics starved = awaitPending();
+            assertEquals("test-pool", starved.pool());
+            assertEquals(1, starved.active());
+            assertEquals(0, starved.idle());
+            assertEquals(1, starved.maximumPoolSize());
+            assertEquals(5000, starved.connectionTimeoutMillis());
+        }
+        waiter.join();
+
+        PoolDiagnostics idle = endpoint.pools().get(0);
+        assertEquals(0, idle.active());
+        assertEquals(0, idle.pending());
+        assertEquals(1, idle.idle());
+    }
+
+    @Test
+    @DisplayName("Should report how long acquiring a connection took in cumulative buckets")
+    void testReportsAcquireHistogram() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            dataSource.getConnection().close();
+        }
+
+        PoolDiagnostics.AcquireTimes acquire = endpoint.pools().get(0).acquire();
+
+        assertNotNull(acquire);
+        assertEquals(3, acquire.count());
+        List<PoolDiagnostics.Bucket> buckets = acquire.buckets();
+        assertEquals(1.0, buckets.get(0).leMillis());
+        assertEquals(30000.0, buckets.get(buckets.size() - 1).leMillis());
+        assertEquals(3, buckets.get(buckets.size() - 1).count());
+    }
+
+    private PoolDiagnostics awaitPending() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        PoolDiagnostics pool = endpoint.pools().get(0);
+        while (pool.pending() == 0) {
+            if (System.nanoTime() > deadline) {
+                fail("No thread waited for a connection within 5 s");
+            }
+            Thread.sleep(5);
+            pool = endpoint.pools().get(0);
+        }
+        return pool;
+    }
+}
@@ -1,13 +1,31 @@
 package com.micr.crud.app.unit.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micr.crud.app.cache.BookCache;
+import com.micr.crud.app.cache.BookInvalidation;
+import com.micr.crud.app.cache.LocalBookInvalidationBus;
+import com.micr.crud.app.config.BookConfiguration;
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.dto.CatalogVersion;
+import com.micr.crud.app.dto.TitleCursor;
 import com.micr.crud.app.entity.Book;
 import com.micr.crud.app.repository.BookRepository;
+import com.micr.crud.app.search.BookSearchIndex;
+import com.micr.crud.app.search.SearchField;
 import com.micr.crud.app.service.BookService;
+import io.micronaut.data.model.Pageable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -16,12 +34,18 @@ import static org.mockito.Mockito.*;
 
 public class BookServiceTest {
     private BookRepository bookRepository;
+    private LocalBookInvalidationBus bus;
+    private BookCache bookCache;
+    private BookSearchIndex searchIndex;
     private BookService bookService;
 
     @BeforeEach
     void setUp() {
         bookRepository = mock(BookRepository.class);
-        bookService = new BookService(bookRepository);
+        bus = new LocalBookInvalidationBus();
+        bookCache = new BookCache(Caffeine.newBuilder().recordStats().build(), bus, Duration.ofMinutes(1));
+        searchIndex = new BookSearchIndex();
+        bookService = new BookService(bookRepository, new BookConfiguration(), bookCache, searchIndex, bus);
     }
 
     @Test
@@ -72,4 +96,247 @@ public class BookServiceTest {
 
         verify(bookRepository, times(1)).deleteById(id);
     }
+
+    @Test
+    void testFindPageReturnsNextCursorWhenMoreRowsExist() {
+        Book b1 = new Book(1L, "Micronaut in Action", "John Doe");
+        Book b2 = new Book(2L, "Reactive Java", "Jane Doe");
+        Book b3 = new Book(3L, "Java Concurrency", "Brian Goetz");
+        when(bookRepository.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(b1, b2, b3));
+
+        BookPage page = bookService.findPage(0L, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(2L, BookCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testFindPageOnLastPageHasNoCursor() {
+        Book b1 = new Book(5L, "Micronaut in Action", "John Doe");
+        when(bookRepository.findByIdGreaterThan(eq(4L), any(Pageable.class))).thenReturn(List.of(b1));
+
+        BookPage page = bookService.findPage(4L, 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testFindPageClampsLimitToMaxPageSize() {
+        when(bookRepository.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        bookService.findPage(0L, 10_000);
+
+        verify(bookRepository).findByIdGreaterThan(eq(0L),
+                argThat(p -> p.getSize() == new BookConfiguration().getMaxPageSize() + 1));
+    }
+
+    @Test
+    void testFindByAuthorPagesWithinTheAuthor() {
+        Book b1 = new Book(3L, "Java Concurrency", "Brian Goetz");
+        Book b2 = new Book(7L, "Java Puzzlers", "Brian Goetz");
+        when(bookRepository.findByAuthorAndIdGreaterThan(eq("Brian Goetz"), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(b1, b2));
+
+        BookPage page = bookService.findByAuthor("Brian Goetz", 0L, 1);
+
+        assertEquals(List.of(b1), page.items());
+        assertEquals(3L, BookCursor.decode(page.nextCursor()));
+        verify(bookRepository).findByAuthorAndIdGreaterThan(eq("Brian Goetz"), eq(0L),
+                argThat(p -> p.getSize() == 2 && p.getSort().getOrderBy().get(0).getProperty().equals("id")));
+    }
+
+    @Test
+    void testFindByTitlePrefixAndCountByAuthor() {
+        Book b1 = new Book(9L, "Micronaut in Action", "John Doe");
+        Book b2 = new Book(4L, "Microservices", "John Doe");
+        when(bookRepository.findByTitleStartsWith(eq("Micro"), any(Pageable.class))).thenReturn(List.of(b1, b2));
+        when(bookRepository.countByAuthor("John Doe")).thenReturn(4L);
+
+        BookPage page = bookService.findByTitlePrefix("Micro", null, 1);
+
+        assertEquals(List.of(b1), page.items());
+        assertEquals(new TitleCursor("Micronaut in Action", 9L), TitleCursor.decode(page.nextCursor(), "Micro"));
+        verify(bookRepository).findByTitleStartsWith(eq("Micro"), argThat(p -> p.getNumber() == 0 && p.getSize() == 2
+                && p.getSort().getOrderBy().get(0).getProperty().equals("title")));
+        assertEquals(4L, bookService.countByAuthor("John Doe"));
+    }
+
+    @Test
+    void testFindByTitlePrefixAfterCursorContinuesWithTheNextTitles() {
+        Book sameTitle = new Book(12L, "Micronaut in Action", "Jane Doe");
+        Book next = new Book(4L, "Microservices", "John Doe");
+        when(bookRepository.findByTitleAndIdGreaterThan(eq("Micronaut in Action"), eq(9L), any(Pageable.class)))
+                .thenReturn(List.of(sameTitle));
+        when(bookRepository.findByTitleStartsWithAndTitleGreaterThan(eq("Micro"), eq("Micronaut in Action"),
+                any(Pageable.class))).thenReturn(List.of(next));
+
+        BookPage page = bookService.findByTitlePrefix("Micro", new TitleCursor("Micronaut in Action", 9L), 2);
+
+        assertEquals(List.of(sameTitle, next), page.items());
+        assertNull(page.nextCursor());
+        verify(bookRepository).findByTitleStartsWithAndTitleGreaterThan(eq("Micro"), eq("Micronaut in Action"),
+                argThat(p -> p.getSize() == 2 && p.getSort().getOrderBy().get(0).getProperty().equals("title")));
+    }
+
+    @Test
+    void testCatalogVersionReadsCountAndLastUpdate() {
+        Instant updated = Instant.parse("2024-05-01T10:15:30Z");
+        when(bookRepository.count()).thenReturn(3L);
+        when(bookRepository.findMaxUpdatedAt()).thenReturn(Optional.of(updated));
+
+        assertEquals(new CatalogVersion(3, updated), bookService.catalogVersion());
+        verify(bookRepository, never()).findAll();
+    }
+
+    @Test
+    void testStreamAllReadsInKeysetBatches() {
+        BookConfiguration config = new BookConfiguration();
+        config.setExportFetchSize(2);
+        bookService = new BookService(bookRepository, config, bookCache, searchIndex, bus);
+        Book b1 = new Book(1L, "Micronaut in Action", "John Doe");
+        Book b2 = new Book(2L, "Reactive Java", "Jane Doe");
+        Book b3 = new Book(3L, "Java Concurrency", "Brian Goetz");
+        when(bookRepository.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(List.of(b1, b2));
+        when(bookRepository.findByIdGreaterThan(eq(2L), any(Pageable.class))).thenReturn(List.of(b3));
+
+        List<Book> books = bookService.streamAll().toList();
+
+        assertEquals(List.of(b1, b2, b3), books);
+        verify(bookRepository, times(2)).findByIdGreaterThan(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testSaveAll() {
+        List<Book> books = List.of(new Book("A", "Author"), new Book("B", "Author"));
+        when(bookRepository.saveAll(books)).thenReturn(books);
+
+        List<Book> result = bookService.saveAll(books);
+
+        assertEquals(2, result.size());
+        verify(bookRepository, times(1)).saveAll(books);
+    }
+
+    @Test
+    void testDeleteAll() {
+        bookService.deleteAll(List.of(1L, 2L));
+
+        verify(bookRepository, times(1)).deleteByIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    void testSaveAllRejectsOversizedBatch() {
+        BookConfiguration config = new BookConfiguration();
+        config.setMaxBatchSize(1);
+        bookService = new BookService(bookRepository, config, bookCache, searchIndex, bus);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.saveAll(List.of(new Book("A", "Author"), new Book("B", "Author"))));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testFindByIdIsServedFromCacheOnSecondCall() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(new Book(1L, "Micronaut Guide", "Alex")));
+
+        bookService.findById(1L);
+        Optional<Book> result = bookService.findById(1L);
+
+        assertEquals("Micronaut Guide", result.orElseThrow().getTitle());
+        verify(bookRepository, times(1)).findById(1L);
+        assertEquals(1, bookService.cacheStats().hitCount());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneQuery() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return Optional.of(new Book(1L, "Micronaut Guide", "Alex"));
+        });
+        ConcurrentLinkedQueue<Book> found = new ConcurrentLinkedQueue<>();
+        Runnable lookup = () -> found.add(bookService.findById(1L).orElseThrow());
+
+        List<Thread> threads = new ArrayList<>(List.of(Thread.ofPlatform().start(lookup)));
+        querying.await();
+        for (int i = 0; i < 4; i++) {
+            threads.add(Thread.ofPlatform().start(lookup));
+        }
+        // the others wait for the first query, parked in SingleFlight
+        while (!threads.subList(1, threads.size()).stream().allMatch(t -> t.getState() == Thread.State.WAITING)) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        verify(bookRepository, times(1)).findById(1L);
+        assertEquals(5, found.size());
+        // each caller has its own copy
+        assertEquals(5, found.stream().map(System::identityHashCode).distinct().count());
+    }
+
+    @Test
+    void testCachedBookCannotBeMutatedByCallers() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(new Book(1L, "Micronaut Guide", "Alex")));
+
+        bookService.findById(1L).orElseThrow().setTitle("Changed");
+
+        assertEquals("Micronaut Guide", bookService.findById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void testSaveAndDeleteInvalidateCache() {
+        Book b = new Book(1L, "Micronaut Guide", "Alex");
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(b));
+        when(bookRepository.save(b)).thenReturn(b);
+
+        bookService.findById(1L);
+        bookService.save(b);
+        bookService.findById(1L);
+        bookService.delete(1L);
+        bookService.findById(1L);
+
+        verify(bookRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void testSearchPagesThroughRankedResults() {
+        searchIndex.rebuild(Stream.of(List.of(
+                new Book(1L, "Java Basics", "Ann", 0L),
+                new Book(2L, "Java Streams", "Bob", 0L),
+                new Book(3L, "Kotlin Basics", "Cid", 0L))));
+
+        BookPage first = bookService.search("basics", SearchField.TITLE, 0, 1);
+        BookPage second = bookService.search("basics", SearchField.TITLE, BookCursor.decode(first.nextCursor()), 1);
+
+        assertEquals(List.of(1L), first.items().stream().map(Book::getId).toList());
+        assertEquals(List.of(3L), second.items().stream().map(Book::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testWritesKeepSearchIndexInSync() {
+        Book saved = new Book(1L, "Micronaut Guide", "Alex", 0L);
+        when(bookRepository.save(any(Book.class))).thenReturn(saved);
+
+        bookService.save(new Book("Micronaut Guide", "Alex"));
+        assertEquals(1, bookService.search("micro", null, 0, null).items().size());
+
+        bookService.delete(1L);
+        assertTrue(bookService.search("micro", null, 0, null).items().isEmpty());
+        verify(bookRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testWriteOnAnotherNodeIsReindexed() {
+        when(bookRepository.findById(7L)).thenReturn(Optional.of(new Book(7L, "Remote Book", "Eve", 3L)));
+
+        bus.publish(new BookInvalidation(7L, 3L));
+
+        assertEquals(List.of(7L), bookService.search("remote", null, 0, null).items().stream().map(Book::getId).toList());
+    }
 }
@@ -0,0 +1,94 @@
+package com.micr.crud.app.unit.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.micr.crud.app.cache.BookCache;
+import com.micr.crud.app.cache.LocalBookInvalidationBus;
+import com.micr.crud.app.config.BookConfiguration;
+import com.micr.crud.app.dto.BookCursor;
+import com.micr.crud.app.dto.BookPage;
+import com.micr.crud.app.entity.Book;
+import com.micr.crud.app.entity.BookRow;
+import com.micr.crud.app.repository.ReactiveBookRepository;
+import com.micr.crud.app.search.BookSearchIndex;
+import com.micr.crud.app.service.ReactiveBookService;
+import io.micronaut.data.model.Pageable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReactiveBookServiceTest {
+    private ReactiveBookRepository bookRepository;
+    private ReactiveBookService bookService;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(ReactiveBookRepository.class);
+        LocalBookInvalidationBus bus = new LocalBookInvalidationBus();
+        BookCache bookCache = new BookCache(Caffeine.newBuilder().recordStats().build(), bus, Duration.ofMinutes(1));
+        bookService = new ReactiveBookService(bookRepository, new BookConfiguration(), bookCache, new BookSearchIndex(), bus);
+    }
+
+    @Test
+    void testFindByIdIsCached() {
+        when(bookRepository.findById(1L)).thenReturn(Mono.just(new BookRow(1L, "Micronaut Guide", "Alex", 0L, null)));
+
+        Book first = bookService.findById(1L).block();
+        Book second = bookService.findById(1L).block();
+
+        assertEquals("Micronaut Guide", first.getTitle());
+        assertEquals("Micronaut Guide", second.getTitle());
+        verify(bookRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testFindByIdMissing() {
+        when(bookRepository.findById(9L)).thenReturn(Mono.empty());
+
+        assertNull(bookService.findById(9L).block());
+    }
+
+    @Test
+    void testFindPageReturnsCursorWhenMoreRowsExist() {
+        when(bookRepository.findByIdGreaterThan(eq(0L), any(Pageable.class))).thenReturn(Flux.just(
+                new BookRow(1L, "A", "x", 0L, null), new BookRow(2L, "B", "y", 0L, null), new BookRow(3L, "C", "z", 0L, null)));
+
+        BookPage page = bookService.findPage(0L, 2).block();
+
+        assertEquals(2, page.items().size());
+        assertEquals(BookCursor.encode(2L), page.nextCursor());
+    }
+
+    @Test
+    void testStreamAllReadsBatchesUntilAShortOne() {
+        BookConfiguration config = new BookConfiguration();
+        config.setExportFetchSize(2);
+        LocalBookInvalidationBus bus = new LocalBookInvalidationBus();
+        BookCache bookCache = new BookCache(Caffeine.newBuilder().build(), bus, Duration.ofMinutes(1));
+        ReactiveBookService service = new ReactiveBookService(bookRepository, config, bookCache, new BookSearchIndex(), bus);
+        when(bookRepository.findByIdGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(Flux.just(new BookRow(1L, "A", "x", 0L, null), new BookRow(2L, "B", "y", 0L, null)));
+        when(bookRepository.findByIdGreaterThan(eq(2L), any(Pageable.class)))
+                .thenReturn(Flux.just(new BookRow(3L, "C", "z", 0L, null)));
+
+        List<Book> books = service.streamAll().collectList().block();
+
+        assertEquals(List.of(1L, 2L, 3L), books.stream().map(Book::getId).toList());
+        verify(bookRepository, never()).findByIdGreaterThan(eq(3L), any(Pageable.class));
+    }
+
+    @Test
+    void testSaveAllRejectsOversizedBatch() {
+        List<Book> books = Collections.nCopies(1001, new Book("Title", "Author"));
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.saveAll(books).block());
+        verify(bookRepository, never()).saveAll(any());
+    }
+}
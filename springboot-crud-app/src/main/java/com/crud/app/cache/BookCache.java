@@ -0,0 +1,79 @@
+package com.crud.app.cache;
+
+import com.crud.app.entity.Book;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of books by id, backed by the {@code books} Caffeine cache configured
+ * with {@code spring.cache.caffeine.spec}. Only immutable {@link BookSnapshot}s are stored.
+ * Each invalidation takes a number from a counter; a load that started before the latest
+ * invalidation of its book read a row that may be stale, so it is returned but not cached.
+ */
+@Component
+public class BookCache {
+
+    public static final String NAME = "books";
+
+    // longer than any load is expected to take
+    private static final Duration INVALIDATION_WINDOW = Duration.ofMinutes(1);
+
+    private final Cache<Object, Object> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Cache<Long, Long> invalidatedAt = Caffeine.newBuilder()
+            .expireAfterWrite(INVALIDATION_WINDOW)
+            .maximumSize(100_000)
+            .build();
+
+    public BookCache(CacheManager cacheManager) {
+        this.cache = ((CaffeineCache) cacheManager.getCache(NAME)).getNativeCache();
+    }
+
+    /**
+     * Returns the cached book or loads it with {@code loader}. Missing books are not cached.
+     */
+    public Optional<Book> get(Long id, Function<Long, Optional<Book>> loader) {
+        BookSnapshot snapshot = (BookSnapshot) cache.getIfPresent(id);
+        if (snapshot == null) {
+            long started = invalidations.get();
+            Optional<Book> loaded = loader.apply(id);
+            loaded.ifPresent(book -> putUnlessInvalidated(id, BookSnapshot.of(book), started));
+            return loaded;
+        }
+        return Optional.of(snapshot.toBook());
+    }
+
+    /**
+     * Evicts the book and keeps the loads already running for it from caching what they read.
+     */
+    public void invalidate(Long id) {
+        if (id != null) {
+            // numbered before the eviction, so a load either sees the number or is evicted
+            invalidatedAt.put(id, invalidations.incrementAndGet());
+            cache.invalidate(id);
+        }
+    }
+
+    // checked and stored under the entry's lock, which the eviction also takes
+    private void putUnlessInvalidated(Long id, BookSnapshot snapshot, long started) {
+        cache.asMap().compute(id, (key, cached) -> {
+            Long invalidated = invalidatedAt.getIfPresent(id);
+            return invalidated != null && invalidated > started ? cached : snapshot;
+        });
+    }
+
+    public BookCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new BookCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+}
@@ -0,0 +1,4 @@
+package com.crud.app.cache;
+
+public record BookCacheStats(long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+}
@@ -0,0 +1,104 @@
+package com.crud.app.cache;
+
+import com.crud.app.config.BookProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code GET /books} responses kept as the bytes that go on the wire: the JSON body, its gzip
+ * encoding and the ETag, so a hit costs no query, no serialization and no compression. Enabled
+ * when {@code books.listing-cache-size} is positive.
+ * <p>
+ * Entries are keyed by the request's {@link Query} and a catalog version that
+ * {@link #invalidateAll} bumps. {@code BookService} calls it after every committed write; the
+ * version is read before a page is loaded, so a page loaded while a write commits is stored under
+ * a version that the write retires.
+ */
+@Component
+public class BookListingCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, SerializedPage> pages;
+    private final AtomicLong version = new AtomicLong();
+
+    public BookListingCache(ObjectMapper objectMapper, BookProperties properties) {
+        this.objectMapper = objectMapper;
+        int maximumSize = properties.getListingCacheSize();
+        this.pages = maximumSize <= 0 ? null : Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public boolean isEnabled() {
+        return pages != null;
+    }
+
+    /**
+     * Returns the cached page or builds it from {@code etag} and {@code body}, which are only
+     * called on a miss. Without a cache the page is built every time.
+     */
+    public SerializedPage get(Query query, Supplier<String> etag, Supplier<?> body) {
+        Key key = new Key(version.get(), query);
+        SerializedPage page = pages == null ? null : pages.getIfPresent(key);
+        if (page == null) {
+            page = serialize(etag.get(), body.get());
+            // a page loaded under a retired version is never read again, and is evicted by size
+            if (pages != null && key.version() == version.get()) {
+                pages.put(key, page);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Retires every cached page. Call after the write has committed.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        if (pages != null) {
+            pages.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return pages == null ? 0 : pages.estimatedSize();
+    }
+
+    private SerializedPage serialize(String etag, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = gzip(json);
+            // tiny bodies grow when compressed
+            return new SerializedPage(etag, json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize listing", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The query parameters of a listing request; {@code after} is the cursor as sent.
+     */
+    public record Query(String after, Integer limit, String author, String titlePrefix) {
+    }
+
+    private record Key(long version, Query query) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.crud.app.cache;
+
+import com.crud.app.entity.Book;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of a {@link Book} held by {@link BookCache}. Callers always receive a
+ * fresh detached {@code Book} built from it, never the cached value itself.
+ */
+public record BookSnapshot(Long id, String title, String author, Long version, Instant updatedAt) {
+
+    public static BookSnapshot of(Book book) {
+        return new BookSnapshot(book.getId(), book.getTitle(), book.getAuthor(), book.getVersion(), book.getUpdatedAt());
+    }
+
+    public Book toBook() {
+        return new Book(id, title, author, version, updatedAt);
+    }
+}
@@ -0,0 +1,9 @@
+package com.crud.app.cache;
+
+/**
+ * A listing response ready to be written: its ETag, the JSON body and, when it is smaller, the
+ * gzip encoding of that body (null otherwise). The arrays are shared by every response and must
+ * not be modified.
+ */
+public record SerializedPage(String etag, byte[] json, byte[] gzip) {
+}
@@ -0,0 +1,71 @@
+package com.crud.app.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader and every caller
+ * that arrives while it runs gets its result, or its exception, instead of loading again. Nothing
+ * is kept once the load completes, so this is not a cache. Keys are claimed with one
+ * {@code putIfAbsent}; there is no lock, and loads of different keys never wait for each other.
+ * <p>
+ * The result is shared between callers, so it must not be mutated: load an immutable value.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code loader} on this thread, or waits for the load of {@code key} already running on another.
+     */
+    public V run(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            return await(leader);
+        }
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Lets the next caller for {@code key} start a new load instead of joining the running one.
+     * Call after a write, so that no caller gets what a load started before the write has read.
+     */
+    public void forget(K key) {
+        flights.remove(key);
+    }
+
+    /**
+     * Keys being loaded right now.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // the leader's own exception, as the leader got it
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
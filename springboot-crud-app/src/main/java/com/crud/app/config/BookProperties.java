@@ -0,0 +1,47 @@
+package com.crud.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "books")
+public class BookProperties {
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+    private int exportFetchSize = 500;
+    private int maxBatchSize = 1000;
+    /** Ranked search results reachable by paging; deeper pages are cut off. */
+    private int searchMaxResults = 1000;
+    /** Listing responses kept serialized and compressed, see {@code BookListingCache}; 0 disables the cache. */
+    private int listingCacheSize = 0;
+    /** Rounds of requests sent through the controller once the app is ready; 0 disables the warm-up. */
+    private int warmupIterations = 0;
+    /** Takes a CRaC checkpoint after the warm-up; needs a CRaC JDK and {@code -XX:CRaCCheckpointTo}. */
+    private boolean checkpointAfterWarmup = false;
+    /** Write-behind for {@code POST /books}, see {@code BookIngestQueue}. */
+    private final Ingest ingest = new Ingest();
+
+    @Data
+    public static class Ingest {
+        /** Queues {@code POST /books} and answers 202 with a tracking id instead of 201. */
+        private boolean enabled = false;
+        /** Books accepted and not committed yet before the queue answers 429; rounded up to a power of two. */
+        private int capacity = 8192;
+        /** Books committed per transaction by the writer, at most {@code books.max-batch-size}. */
+        private int batchSize = 500;
+        /** Append-only log of queued books, replayed at startup. */
+        private String logPath = "book-ingest.log";
+        /** Size at which the log starts a new segment; a segment is deleted once its books are committed. */
+        private long logSegmentBytes = 16 * 1024 * 1024;
+        /** Forces every log append to the disk, so that queued books also survive a power loss. */
+        private boolean fsync = false;
+        /** Delay before books that failed because of the database are retried; doubles on every failure. */
+        private Duration retryDelay = Duration.ofMillis(100);
+        /** Upper bound for {@code retry-delay}. */
+        private Duration retryMaxDelay = Duration.ofSeconds(30);
+        /** How long the status of a tracking id can be looked up after its last change. */
+        private Duration statusRetention = Duration.ofMinutes(10);
+    }
+}
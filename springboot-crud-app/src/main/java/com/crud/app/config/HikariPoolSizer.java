@@ -0,0 +1,36 @@
+package com.crud.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from the CPU count, {@code 2 * cores + 1}, unless
+ * {@code spring.datasource.hikari.maximum-pool-size} is set. With
+ * {@code spring.threads.virtual.enabled} Tomcat no longer caps concurrent requests at its thread
+ * pool, so this pool is what bounds database concurrency: excess requests wait here for up to
+ * {@code connection-timeout}.
+ */
+@Component
+public class HikariPoolSizer implements BeanPostProcessor {
+    private final Environment environment;
+
+    public HikariPoolSizer(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && !Binder.get(environment)
+                .bind("spring.datasource.hikari.maximum-pool-size", Integer.class).isBound()) {
+            dataSource.setMaximumPoolSize(poolSize(Runtime.getRuntime().availableProcessors()));
+        }
+        return bean;
+    }
+
+    public static int poolSize(int processors) {
+        return processors * 2 + 1;
+    }
+}
@@ -1,46 +1,258 @@
 package com.crud.app.controller;
 
+import com.crud.app.cache.BookCacheStats;
+import com.crud.app.cache.BookListingCache;
+import com.crud.app.cache.SerializedPage;
+import com.crud.app.dto.BookCursor;
+import com.crud.app.dto.CatalogVersion;
+import com.crud.app.dto.TitleCursor;
 import com.crud.app.entity.Book;
+import com.crud.app.ingest.BookIngestQueue;
+import com.crud.app.ingest.IngestStatus;
+import com.crud.app.search.SearchField;
 import com.crud.app.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.micr.example.common.http.AcceptEncoding;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping ( value = "/books")
 @CrossOrigin(origins = "*")
 public class BookController {
+    private static final int FLUSH_EVERY = 500;
+
     private final BookService service;
+    private final ObjectMapper objectMapper;
+    private final BookListingCache listingCache;
+    private final BookIngestQueue ingest;
 
-    public BookController(BookService service) {
+    public BookController(BookService service, ObjectMapper objectMapper, BookListingCache listingCache,
+                          Optional<BookIngestQueue> ingest) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.listingCache = listingCache;
+        this.ingest = ingest.orElse(null);
     }
 
+    /**
+     * Without query parameters this returns the whole catalog. With {@code after} and/or
+     * {@code limit} it returns a {@link com.crud.app.dto.BookPage} whose
+     * {@code nextCursor} is passed back as {@code after} to fetch the following page.
+     * {@code author} (exact match) or {@code titlePrefix} narrow the pages to matching books; title
+     * matches are ordered by title instead of id.
+     * <p>
+     * Every variant carries the {@link CatalogVersion} as its ETag. It is read before the books, so
+     * a matching {@code If-None-Match} is answered with 304 without reading them.
+     * <p>
+     * With {@code books.listing-cache-size} set, responses come from the {@link BookListingCache}
+     * instead: a hit is answered from memory, already serialized and compressed, ETag included.
+     */
     @RequestMapping ( method = RequestMethod.GET )
-    public List<Book> list() {
-        return service.findAll();
+    public ResponseEntity<?> list(@RequestParam(value = "after", required = false) String after,
+                                  @RequestParam(value = "limit", required = false) Integer limit,
+                                  @RequestParam(value = "author", required = false) String author,
+                                  @RequestParam(value = "titlePrefix", required = false) String titlePrefix,
+                                  WebRequest request) {
+        if (author != null && titlePrefix != null) {
+            return ResponseEntity.badRequest().body("Filter by author or by titlePrefix, not both");
+        }
+        Long afterId;
+        TitleCursor afterTitle;
+        try {
+            afterId = titlePrefix == null ? BookCursor.decode(after) : null;
+            afterTitle = titlePrefix != null ? TitleCursor.decode(after, titlePrefix) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (listingCache.isEnabled()) {
+            SerializedPage page = listingCache.get(new BookListingCache.Query(after, limit, author, titlePrefix),
+                    () -> etag(service.catalogVersion()),
+                    () -> listing(after, afterId, afterTitle, limit, author, titlePrefix));
+            if (request.checkNotModified(page.etag())) {
+                return null;
+            }
+            return serialized(page, request);
+        }
+        // sets the ETag header, and the 304 status when it matches
+        if (request.checkNotModified(etag(service.catalogVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(listing(after, afterId, afterTitle, limit, author, titlePrefix));
+    }
+
+    @GetMapping("/count")
+    public long countByAuthor(@RequestParam("author") String author) {
+        return service.countByAuthor(author);
+    }
+
+    /**
+     * Streams the whole catalog as newline-delimited JSON. The body is written on an
+     * async request thread while rows are read batch by batch, so memory stays flat and
+     * the first row is sent before the last one is read.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            try (Stream<Book> books = service.streamAll()) {
+                Iterator<Book> it = books.iterator();
+                int written = 0;
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                    if (++written % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Ranked search over titles and authors. Every word of {@code q} must match a word of the book,
+     * or the start of one; {@code field} limits the search to {@code title} or {@code author}. Pages
+     * are passed on with {@code nextCursor} as {@code after}, like {@link #list}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam("q") String q,
+                                    @RequestParam(value = "field", required = false) String field,
+                                    @RequestParam(value = "after", required = false) String after,
+                                    @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            SearchField searchField = field == null ? null : SearchField.parse(field);
+            return ResponseEntity.ok(service.search(q, searchField, BookCursor.decode(after), limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public BookCacheStats cacheStats() {
+        return service.cacheStats();
     }
 
+    /**
+     * Served from the cache when possible. The ETag is the book's version and {@code Last-Modified}
+     * its {@code updatedAt}; when the client's copy is current the answer is a bodiless 304.
+     */
     @RequestMapping (method = RequestMethod.GET , value = "/{id}" )
-    public ResponseEntity<Book> get(@PathVariable("id") Long id) {
-        Optional<Book> book = service.findById(id);
-        return book.map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Book> get(@PathVariable("id") Long id, WebRequest request) {
+        Optional<Book> found = service.findById(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Book book = found.get();
+        long lastModified = book.getUpdatedAt() == null ? -1 : book.getUpdatedAt().toEpochMilli();
+        if (request.checkNotModified(etag(book), lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(book);
     }
 
+    /**
+     * Saves the book as a new one and answers 201; an id, version or timestamp in the body is
+     * ignored, as in the Micronaut app. With {@code books.ingest.enabled} the book is queued for the
+     * {@link BookIngestQueue} instead: 202 with its {@link IngestStatus}, whose tracking id is looked
+     * up at {@code /books/ingest/{trackingId}}, or 429 while the queue is full.
+     */
     @PostMapping
-    public ResponseEntity<Book> create(@RequestBody Book book) {
+    public ResponseEntity<?> create(@RequestBody Book body) {
+        Book book = body.asNew();
+        if (ingest != null) {
+            return ingest.submit(book)
+                    .<ResponseEntity<?>>map(queued -> ResponseEntity.accepted()
+                            .location(URI.create("/books/ingest/" + queued.trackingId()))
+                            .body(queued))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .body("Ingest queue is full"));
+        }
         Book saved = service.save(book);
         return new ResponseEntity<>(saved, HttpStatus.CREATED);
     }
 
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<IngestStatus> ingestStatus(@PathVariable("trackingId") String trackingId) {
+        if (ingest == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(ingest.status(trackingId));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createAll(@RequestBody List<Book> books) {
+        try {
+            return new ResponseEntity<>(service.saveAll(books.stream().map(Book::asNew).toList()), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") Long id) {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<?> deleteAll(@RequestParam("ids") List<Long> ids) {
+        try {
+            service.deleteAll(ids);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private Object listing(String after, Long afterId, TitleCursor afterTitle, Integer limit, String author,
+                           String titlePrefix) {
+        if (after == null && limit == null && author == null && titlePrefix == null) {
+            return service.findAll();
+        }
+        if (author != null) {
+            return service.findByAuthor(author, afterId, limit);
+        }
+        if (titlePrefix != null) {
+            return service.findByTitlePrefix(titlePrefix, afterTitle, limit);
+        }
+        return service.findPage(afterId, limit);
+    }
+
+    // the stored gzip encoding when the client accepts it; Tomcat does not compress a response that
+    // already has a Content-Encoding. The ETag, set by checkNotModified, is shared by both encodings.
+    private static ResponseEntity<byte[]> serialized(SerializedPage page, WebRequest request) {
+        String[] acceptEncoding = request.getHeaderValues(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = page.gzip() != null && acceptEncoding != null && AcceptEncoding.acceptsGzip(List.of(acceptEncoding));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? page.gzip() : page.json());
+    }
+
+    // strong ETags: "id.version" for a book, "count-lastUpdated" for the catalog
+    private static String etag(Book book) {
+        return book.getVersion() == null ? null : "\"" + book.getId() + "." + book.getVersion() + "\"";
+    }
+
+    private static String etag(CatalogVersion version) {
+        Instant last = version.lastUpdated();
+        return "\"" + version.count() + "-" + (last == null ? "0" : last.getEpochSecond() + "." + last.getNano()) + "\"";
+    }
 }
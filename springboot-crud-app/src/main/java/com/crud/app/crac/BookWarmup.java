@@ -0,0 +1,110 @@
+package com.crud.app.crac;
+
+import com.crud.app.config.BookProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Core;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sends {@code books.warmup-iterations} rounds of requests through every
+ * {@link com.crud.app.controller.BookController} path over real HTTP once the app is ready, so the
+ * JIT has compiled MVC, Jackson, the service and the repository before the first client request.
+ * Each round deletes the books it created. With {@code books.checkpoint-after-warmup} the
+ * warmed-up process is then saved as a CRaC checkpoint; Spring stops Tomcat and closes the Hikari
+ * pool around it and starts them again after restore.
+ */
+@Slf4j
+@Component
+public class BookWarmup implements ApplicationListener<ApplicationReadyEvent> {
+    private final BookProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public BookWarmup(BookProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (properties.getWarmupIterations() > 0
+                && event.getApplicationContext() instanceof WebServerApplicationContext context) {
+            URI books = URI.create("http://localhost:" + context.getWebServer().getPort() + "/books");
+            long start = System.nanoTime();
+            int requests = warmUp(books, properties.getWarmupIterations());
+            log.info("Warmed up with {} requests in {} ms", requests, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (properties.isCheckpointAfterWarmup()) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Runs the given number of rounds against {@code books} and returns the number of requests
+     * sent. The HTTP client is closed before returning, since its sockets would block a checkpoint.
+     */
+    public int warmUp(URI books, int iterations) {
+        int requests = 0;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int i = 0; i < iterations; i++) {
+                JsonNode created = objectMapper.readTree(
+                        send(client, post(books, "{\"title\":\"warm-up " + i + "\",\"author\":\"warm-up\"}")));
+                long id = created.get("id").asLong();
+                send(client, HttpRequest.newBuilder(URI.create(books + "/" + id)).GET().build());
+                send(client, HttpRequest.newBuilder(URI.create(books + "?limit=20")).GET().build());
+                JsonNode batch = objectMapper.readTree(send(client, post(URI.create(books + "/batch"),
+                        "[{\"title\":\"warm-up a\",\"author\":\"warm-up\"},{\"title\":\"warm-up b\",\"author\":\"warm-up\"}]")));
+                String ids = StreamSupport.stream(batch.spliterator(), false)
+                        .map(book -> book.get("id").asText())
+                        .collect(Collectors.joining(","));
+                send(client, HttpRequest.newBuilder(URI.create(books + "?ids=" + ids)).DELETE().build());
+                send(client, HttpRequest.newBuilder(URI.create(books + "/" + id)).DELETE().build());
+                requests += 6;
+            }
+        } catch (IOException e) {
+            log.warn("Warm-up stopped after {} requests: {}", requests, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return requests;
+    }
+
+    private static HttpRequest post(URI uri, String json) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static byte[] send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 300) {
+            throw new IOException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static void checkpoint() {
+        try {
+            log.info("Taking CRaC checkpoint");
+            Core.checkpointRestore();
+            log.info("Restored from CRaC checkpoint");
+        } catch (UnsupportedOperationException e) {
+            log.warn("This JVM does not support CRaC, no checkpoint taken");
+        } catch (Exception e) {
+            log.warn("CRaC checkpoint failed, continuing without: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.crud.app.dto;
+
+import com.crud.app.entity.Book;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of books, in id order, by title for a title prefix, or by rank for a search.
+ * {@code nextCursor} is null on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookPage(List<Book> items, String nextCursor) {
+}
@@ -0,0 +1,11 @@
+package com.crud.app.dto;
+
+import java.time.Instant;
+
+/**
+ * Cheap fingerprint of the whole {@code BOOK} table: inserts and deletes change the count, and
+ * every write moves {@code lastUpdated} forward. It relies on the writers' clocks, which set
+ * {@code updatedAt}, moving forward together. {@code lastUpdated} is null for an empty table.
+ */
+public record CatalogVersion(long count, Instant lastUpdated) {
+}
@@ -0,0 +1,39 @@
+package com.crud.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the listing ordered by title, then id: the title and id of the last book of a page,
+ * encoded into an opaque cursor token like {@link BookCursor}.
+ */
+public record TitleCursor(String title, long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + title).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for no cursor, the first page.
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}, or for a
+     *         title that does not start with {@code prefix}
+     */
+    public static TitleCursor decode(String cursor, String prefix) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            long id = Long.parseLong(colon < 0 ? raw : raw.substring(0, colon));
+            if (colon < 0 || id < 0 || !raw.startsWith(prefix, colon + 1)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new TitleCursor(raw.substring(colon + 1), id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -6,22 +6,58 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+import java.time.Instant;
+
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
-@Table(name="BOOK")
+// id completes both indexes so their lookups come back in page order without a sort
+@Table(name="BOOK", indexes = {
+        @Index(name = "idx_book_author", columnList = "author, id"),
+        @Index(name = "idx_book_title", columnList = "title, id"),
+        @Index(name = "idx_book_updated_at", columnList = "updated_at")
+})
 public class Book {
+    // sequence ids (pooled optimizer) so Hibernate can batch inserts; IDENTITY disables batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     private String title;
     private String author;
 
+    // optimistic locking; both are set by Hibernate, request bodies go through asNew() so they cannot choose them
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     public Book(String title, String author) {
         this.title = title;
         this.author = author;
     }
+
+    public Book(Long id, String title, String author) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+    }
+
+    /**
+     * The book a create request asks for: its title and author only, since the id, version and
+     * timestamp are assigned when it is saved.
+     */
+    public Book asNew() {
+        return new Book(title, author);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,138 @@
+package com.crud.app.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.crud.app.config.BookProperties;
+import com.crud.app.entity.Book;
+import com.crud.app.service.BookService;
+import com.micr.example.common.ingest.IngestQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Write-behind for {@code POST /books} ({@code books.ingest.enabled}), on the shared
+ * {@link IngestQueue}. A request returns a tracking id once the book is in the ingest log, without
+ * taking a lock or touching the database; a writer thread commits up to
+ * {@code books.ingest.batch-size} books per transaction through {@link BookService#saveAll}, so a
+ * burst costs one commit per batch instead of one per book, and no request waits for a connection.
+ * Books left in the log by the previous run are committed at startup, before Tomcat takes requests.
+ */
+@Component
+@ConditionalOnProperty(name = "books.ingest.enabled", havingValue = "true")
+public class BookIngestQueue extends IngestQueue<Book> implements SmartInitializingSingleton {
+
+    private final BookService service;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, IngestStatus> statuses;
+
+    public BookIngestQueue(BookService service, ObjectMapper objectMapper, BookProperties properties) {
+        super("book-ingest", options(properties));
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getIngest().getStatusRetention())
+                .maximumSize(100_000)
+                .build();
+    }
+
+    private static Options options(BookProperties properties) {
+        BookProperties.Ingest config = properties.getIngest();
+        return new Options(config.getCapacity(), Math.min(config.getBatchSize(), properties.getMaxBatchSize()),
+                Path.of(config.getLogPath()), config.getLogSegmentBytes(), config.isFsync(),
+                config.getRetryDelay(), config.getRetryMaxDelay());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        start();
+    }
+
+    @PreDestroy
+    @Override
+    public void stop() throws InterruptedException, IOException {
+        super.stop();
+    }
+
+    /**
+     * Queues {@code book} and returns its {@code QUEUED} status, or empty when the queue is full.
+     *
+     * @throws IllegalStateException when the queue has been stopped
+     * @throws UncheckedIOException when the book cannot be written to the log
+     */
+    public Optional<IngestStatus> submit(Book book) {
+        String id = UUID.randomUUID().toString();
+        IngestStatus queued = IngestStatus.queued(id);
+        // before the writer can report the book saved
+        statuses.put(id, queued);
+        boolean accepted = false;
+        try {
+            accepted = enqueue(id, book);
+        } finally {
+            if (!accepted) {
+                statuses.invalidate(id);
+            }
+        }
+        return accepted ? Optional.of(queued) : Optional.empty();
+    }
+
+    public Optional<IngestStatus> status(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    protected byte[] serialize(Book book) throws IOException {
+        return objectMapper.writeValueAsBytes(book);
+    }
+
+    @Override
+    protected Book deserialize(String json) throws IOException {
+        return objectMapper.readValue(json, Book.class);
+    }
+
+    @Override
+    protected void saveAll(List<Tracked<Book>> batch) {
+        List<Book> saved = service.saveAll(batch.stream().map(Tracked::item).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            String id = batch.get(i).trackingId();
+            statuses.put(id, IngestStatus.saved(id, saved.get(i).getId()));
+        }
+    }
+
+    @Override
+    protected void save(Tracked<Book> book) {
+        statuses.put(book.trackingId(), IngestStatus.saved(book.trackingId(), service.save(book.item()).getId()));
+    }
+
+    @Override
+    protected void failed(Tracked<Book> book, RuntimeException failure) {
+        statuses.put(book.trackingId(), IngestStatus.failed(book.trackingId(), String.valueOf(failure.getMessage())));
+    }
+
+    @Override
+    protected Book fresh(Book book) {
+        return new Book(book.getTitle(), book.getAuthor());
+    }
+
+    // Spring translates most SQL exceptions before they reach the queue
+    @Override
+    protected boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TransientDataAccessException || t instanceof RecoverableDataAccessException) {
+                return true;
+            }
+        }
+        return super.isTransient(failure);
+    }
+}
@@ -0,0 +1,22 @@
+package com.crud.app.ingest;
+
+/**
+ * Where a book sent to the {@link BookIngestQueue} stands. {@code bookId} is set once it is
+ * {@code SAVED}, {@code error} when it {@code FAILED}.
+ */
+public record IngestStatus(String trackingId, State state, Long bookId, String error) {
+
+    public enum State { QUEUED, SAVED, FAILED }
+
+    public static IngestStatus queued(String trackingId) {
+        return new IngestStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static IngestStatus saved(String trackingId, Long bookId) {
+        return new IngestStatus(trackingId, State.SAVED, bookId, null);
+    }
+
+    public static IngestStatus failed(String trackingId, String error) {
+        return new IngestStatus(trackingId, State.FAILED, null, error);
+    }
+}
@@ -0,0 +1,60 @@
+package com.crud.app.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code GET /actuator/pool}: connections in use, idle and waited for in every Hikari pool, with the
+ * pool limits and how long acquiring a connection has taken. The buckets are the
+ * {@code management.metrics.distribution.slo.hikaricp.connections.acquire} ones. A pool that is
+ * starved shows {@code active == maximumPoolSize} and {@code pending > 0}, and its acquisitions
+ * move to the upper buckets.
+ */
+@Component
+@Endpoint(id = "pool")
+public class ConnectionPoolEndpoint {
+
+    public static final String ACQUIRE = "hikaricp.connections.acquire";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final MeterRegistry registry;
+
+    public ConnectionPoolEndpoint(List<DataSource> dataSources, MeterRegistry registry) throws SQLException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                pools.add(dataSource.unwrap(HikariDataSource.class));
+            }
+        }
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public List<PoolDiagnostics> pools() {
+        return pools.stream().map(this::diagnose).toList();
+    }
+
+    private PoolDiagnostics diagnose(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        // a pool that has not started yet has no name, and no meters
+        Timer acquire = bean == null ? null
+                : registry.find(ACQUIRE).tag("pool", pool.getPoolName()).timer();
+        return new PoolDiagnostics(pool.getPoolName(),
+                bean == null ? 0 : bean.getActiveConnections(),
+                bean == null ? 0 : bean.getIdleConnections(),
+                bean == null ? 0 : bean.getTotalConnections(),
+                bean == null ? 0 : bean.getThreadsAwaitingConnection(),
+                pool.getMaximumPoolSize(), pool.getMinimumIdle(), pool.getConnectionTimeout(),
+                pool.getLeakDetectionThreshold(),
+                acquire == null ? null : PoolDiagnostics.AcquireTimes.of(acquire.takeSnapshot()));
+    }
+}
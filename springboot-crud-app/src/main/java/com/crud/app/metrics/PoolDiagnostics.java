@@ -0,0 +1,38 @@
+package com.crud.app.metrics;
+
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State of one Hikari pool, as reported by {@link ConnectionPoolEndpoint}. {@code pending} counts
+ * the threads waiting for a connection right now; {@code acquire} is null until the pool has
+ * published its metrics.
+ */
+public record PoolDiagnostics(String pool, int active, int idle, int total, int pending,
+                              int maximumPoolSize, int minimumIdle, long connectionTimeoutMillis,
+                              long leakDetectionThresholdMillis, AcquireTimes acquire) {
+
+    /**
+     * Time spent waiting for a connection since startup. Buckets are cumulative, like Prometheus:
+     * each holds the acquisitions that took at most {@code leMillis}.
+     */
+        public record AcquireTimes(long count, double meanMillis, double maxMillis, List<Bucket> buckets) {
+
+        public static AcquireTimes of(HistogramSnapshot snapshot) {
+            return new AcquireTimes(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS),
+                    Arrays.stream(snapshot.histogramCounts()).map(Bucket::of).toList());
+        }
+    }
+
+        public record Bucket(double leMillis, long count) {
+
+        static Bucket of(CountAtBucket bucket) {
+            return new Bucket(bucket.bucket(TimeUnit.MILLISECONDS), (long) bucket.count());
+        }
+    }
+}
@@ -1,9 +1,37 @@
 package com.crud.app.repository;
 
 import com.crud.app.entity.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book,Long> {
+
+    // keyset page driven by the PK index
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // keyset pages of one author's books, served by idx_book_author (author, id)
+    List<Book> findByAuthorAndIdGreaterThanOrderByIdAsc(String author, Long id, Limit limit);
+
+    // LIKE 'prefix%' is a range scan of idx_book_title (title, id), already in this order.
+    // An id > ? keyset here would make H2 walk the primary key instead.
+    List<Book> findByTitleStartingWithOrderByTitleAscIdAsc(String prefix, Limit limit);
+
+    // the (title, id) keyset as two seeks of idx_book_title: the rest of the cursor's title by id,
+    // then the titles after it; an OR of both in one query would not use the index
+    List<Book> findByTitleAndIdGreaterThanOrderByIdAsc(String title, Long id, Limit limit);
+
+    List<Book> findByTitleStartingWithAndTitleGreaterThanOrderByTitleAscIdAsc(String prefix, String title, Limit limit);
+
+    long countByAuthor(String author);
+
+    // read from the end of idx_book_updated_at, no table scan
+    @Query("select max(b.updatedAt) from Book b")
+    Optional<Instant> findMaxUpdatedAt();
 }
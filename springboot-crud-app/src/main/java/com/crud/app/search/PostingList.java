@@ -0,0 +1,59 @@
+package com.crud.app.search;
+
+import java.util.Arrays;
+
+/**
+ * Documents containing one term, in ascending document order, with the term's frequency in each.
+ * Both are kept in growable int arrays rather than boxed collections.
+ */
+final class PostingList {
+
+    private int[] docs = new int[2];
+    private int[] freqs = new int[2];
+    private int size;
+
+    /** Appends {@code doc}, which must be greater than every document already in the list. */
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            grow(size + 1);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    /** Appends all of {@code other}, whose documents must all be greater than the ones in this list. */
+    void addAll(PostingList other) {
+        if (size + other.size > docs.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.docs, 0, docs, size, other.size);
+        System.arraycopy(other.freqs, 0, freqs, size, other.size);
+        size += other.size;
+    }
+
+    /** Adds {@code offset} to every document number, used when a segment is appended behind another. */
+    void shift(int offset) {
+        for (int i = 0; i < size; i++) {
+            docs[i] += offset;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int i) {
+        return docs[i];
+    }
+
+    int freq(int i) {
+        return freqs[i];
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, docs.length + (docs.length >> 1));
+        docs = Arrays.copyOf(docs, capacity);
+        freqs = Arrays.copyOf(freqs, capacity);
+    }
+}
@@ -1,33 +1,262 @@
 package com.crud.app.service;
 
+import com.crud.app.cache.BookCache;
+import com.crud.app.cache.BookCacheStats;
+import com.crud.app.cache.BookListingCache;
+import com.crud.app.cache.BookSnapshot;
+import com.crud.app.cache.SingleFlight;
+import com.crud.app.config.BookProperties;
+import com.crud.app.dto.BookCursor;
+import com.crud.app.dto.BookPage;
+import com.crud.app.dto.CatalogVersion;
+import com.crud.app.dto.TitleCursor;
 import com.crud.app.entity.Book;
 import com.crud.app.repository.BookRepository;
+import com.crud.app.search.BookSearchIndex;
+import com.crud.app.search.SearchField;
+import com.micr.example.common.search.SearchWindow;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-public class BookService {
+public class BookService implements SmartInitializingSingleton {
     private final BookRepository repo;
+    private final BookProperties properties;
+    private final BookCache cache;
+    private final BookSearchIndex index;
+    private final BookListingCache listingCache;
+    private final SingleFlight<Long, Optional<BookSnapshot>> lookups = new SingleFlight<>();
 
-    public BookService(BookRepository repo) {
+    public BookService(BookRepository repo, BookProperties properties, BookCache cache, BookSearchIndex index,
+                       BookListingCache listingCache) {
         this.repo = repo;
+        this.properties = properties;
+        this.cache = cache;
+        this.index = index;
+        this.listingCache = listingCache;
+    }
+
+    /**
+     * Loads the search index once all singletons exist, before Tomcat takes requests; see
+     * {@link BookSearchIndex#rebuild}.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuildSearchIndex();
+    }
+
+    public void rebuildSearchIndex() {
+        index.rebuild(batches());
     }
 
     public List<Book> findAll() {
         return (List<Book>) repo.findAll();
     }
 
+    /**
+     * Returns the books with an id greater than {@code afterId}, in id order.
+     * The page size is clamped to {@code books.max-page-size}.
+     */
+    public BookPage findPage(Long afterId, Integer limit) {
+        int size = pageSize(limit);
+        // fetch one extra row to know whether a next page exists
+        return page(repo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1)), size);
+    }
+
+    /**
+     * Returns the books whose author is exactly {@code author}, paged by id like {@link #findPage}.
+     */
+    public BookPage findByAuthor(String author, Long afterId, Integer limit) {
+        int size = pageSize(limit);
+        return page(repo.findByAuthorAndIdGreaterThanOrderByIdAsc(author, afterId, Limit.of(size + 1)), size);
+    }
+
+    /**
+     * Returns the books whose title starts with {@code prefix} (case-sensitive), ordered by title and
+     * then id and paged by that pair like {@link #findPage}: the cursor holds the title and id of the
+     * last book, so a page costs the same however deep it is.
+     *
+     * @param after the last book of the previous page, or null for the first page
+     */
+    public BookPage findByTitlePrefix(String prefix, TitleCursor after, Integer limit) {
+        int size = pageSize(limit);
+        if (after == null) {
+            return titlePage(repo.findByTitleStartingWithOrderByTitleAscIdAsc(prefix, Limit.of(size + 1)), size);
+        }
+        List<Book> rows = new ArrayList<>(
+                repo.findByTitleAndIdGreaterThanOrderByIdAsc(after.title(), after.id(), Limit.of(size + 1)));
+        if (rows.size() <= size) {
+            rows.addAll(repo.findByTitleStartingWithAndTitleGreaterThanOrderByTitleAscIdAsc(prefix, after.title(),
+                    Limit.of(size + 1 - rows.size())));
+        }
+        return titlePage(rows, size);
+    }
+
+    public long countByAuthor(String author) {
+        return repo.countByAuthor(author);
+    }
+
+    /**
+     * Count and latest {@code updatedAt} of all books: two index lookups, no book is read.
+     */
+    public CatalogVersion catalogVersion() {
+        return new CatalogVersion(repo.count(), repo.findMaxUpdatedAt().orElse(null));
+    }
+
+    /**
+     * Lazily streams the whole catalog in id order. Rows are read in keyset batches of
+     * {@code books.export-fetch-size}, so at most one batch is held in memory and no
+     * connection stays open between batches.
+     */
+    public Stream<Book> streamAll() {
+        return batches().flatMap(List::stream);
+    }
+
+    /**
+     * Ranked full-text search, see {@link BookSearchIndex}. {@code offset} comes from the previous
+     * page's cursor; only the first {@code books.search-max-results} results can be paged to.
+     *
+     * @param field the field to search, or null for title and author
+     * @throws IllegalArgumentException when {@code offset} is past {@code books.search-max-results}
+     */
+    public BookPage search(String query, SearchField field, long offset, Integer limit) {
+        SearchWindow window = SearchWindow.of(offset, pageSize(limit), properties.getSearchMaxResults());
+        // one extra result tells whether a next page exists
+        List<Book> ranked = index.search(query, field, window.ranked());
+        return new BookPage(window.page(ranked), window.hasNext(ranked) ? BookCursor.encode((long) window.to()) : null);
+    }
+
+    /**
+     * A cache miss reads the book through {@link SingleFlight}: concurrent misses for the same id
+     * share one query, and each caller gets its own copy of the book.
+     */
     public Optional<Book> findById(Long id) {
-        return repo.findById(id);
+        return cache.get(id, key -> lookups.run(key, () -> repo.findById(key).map(BookSnapshot::of))
+                .map(BookSnapshot::toBook));
     }
 
+    /**
+     * A book that carries an id updates that row, like the merge this used to be; an id that is
+     * not in the table is dropped and the book is inserted with a new one.
+     */
     public Book save(Book book) {
-        return repo.save(book);
+        Book saved = repo.save(book.getId() == null ? book.asNew()
+                : merge(book, repo.findById(book.getId()).orElse(null)));
+        index.put(saved);
+        invalidate(saved.getId());
+        listingCache.invalidateAll();
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        index.remove(id);
+        invalidate(id);
+        listingCache.invalidateAll();
+    }
+
+    /**
+     * Persists all books in one transaction; inserts are sent as JDBC batches
+     * of {@code hibernate.jdbc.batch_size}. The repository call owns the transaction
+     * so that cache entries are only invalidated after it has committed.
+     *
+     * @throws IllegalArgumentException if more than {@code books.max-batch-size} books are given
+     */
+    public List<Book> saveAll(List<Book> books) {
+        checkBatchSize(books.size());
+        List<Book> saved = repo.saveAll(merge(books));
+        saved.forEach(index::put);
+        saved.forEach(book -> invalidate(book.getId()));
+        listingCache.invalidateAll();
+        return saved;
+    }
+
+    public void deleteAll(List<Long> ids) {
+        checkBatchSize(ids.size());
+        repo.deleteAllByIdInBatch(ids);
+        ids.forEach(index::remove);
+        ids.forEach(this::invalidate);
+        listingCache.invalidateAll();
+    }
+
+    public BookCacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? properties.getDefaultPageSize()
+                : Math.max(1, Math.min(limit, properties.getMaxPageSize()));
+    }
+
+    private static BookPage page(List<Book> rows, int size) {
+        if (rows.size() <= size) {
+            return new BookPage(rows, null);
+        }
+        List<Book> items = rows.subList(0, size);
+        return new BookPage(items, BookCursor.encode(items.get(size - 1).getId()));
+    }
+
+    private static BookPage titlePage(List<Book> rows, int size) {
+        if (rows.size() <= size) {
+            return new BookPage(rows, null);
+        }
+        List<Book> items = rows.subList(0, size);
+        Book last = items.get(size - 1);
+        return new BookPage(items, new TitleCursor(last.getTitle(), last.getId()).encode());
+    }
+
+    // keyset batches of books.export-fetch-size in id order, each read only when the previous one is consumed
+    private Stream<List<Book>> batches() {
+        int fetchSize = properties.getExportFetchSize();
+        Limit batch = Limit.of(fetchSize);
+        return Stream.iterate(repo.findByIdGreaterThanOrderByIdAsc(0L, batch),
+                rows -> !rows.isEmpty(),
+                rows -> rows.size() < fetchSize ? List.of()
+                        : repo.findByIdGreaterThanOrderByIdAsc(rows.get(rows.size() - 1).getId(), batch));
+    }
+
+    // a lookup that started before the write must not be joined by the ones that start after it
+    private void invalidate(Long id) {
+        cache.invalidate(id);
+        if (id != null) {
+            lookups.forget(id);
+        }
+    }
+
+    // copies the request onto the row as read, so that Hibernate merges it with that row's version;
+    // the version and timestamp of the request are ignored, like the id of a book that is not in the table
+    private static Book merge(Book book, Book existing) {
+        if (existing == null) {
+            return book.asNew();
+        }
+        existing.setTitle(book.getTitle());
+        existing.setAuthor(book.getAuthor());
+        return existing;
+    }
+
+    private List<Book> merge(List<Book> books) {
+        List<Long> ids = books.stream().map(Book::getId).filter(Objects::nonNull).toList();
+        Map<Long, Book> existing = ids.isEmpty() ? Map.of() : repo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return books.stream()
+                .map(book -> book.getId() == null ? book.asNew() : merge(book, existing.get(book.getId())))
+                .toList();
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > properties.getMaxBatchSize()) {
+            throw new IllegalArgumentException(
+                    "Batch of " + size + " exceeds the limit of " + properties.getMaxBatchSize());
+        }
     }
 }
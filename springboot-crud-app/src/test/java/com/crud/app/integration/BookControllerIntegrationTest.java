@@ -1,5 +1,6 @@
 package com.crud.app.integration;
 
+import com.crud.app.dto.BookPage;
 import com.crud.app.entity.Book;
 import com.crud.app.repository.BookRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,9 +13,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -77,6 +82,37 @@ public class BookControllerIntegrationTest {
                 .andExpect(jsonPath("$.id", notNullValue()));
     }
 
+    @Test
+    void testCreateBookIgnoresVersionAndTimestamp() throws Exception {
+        String json = """
+                {"title": "New Book", "author": "Alice", "version": 7, "updatedAt": "2001-01-01T00:00:00Z"}
+                """;
+
+        mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version", is(0)))
+                .andExpect(jsonPath("$.updatedAt", not("2001-01-01T00:00:00Z")));
+    }
+
+    @Test
+    void testCreateBookWithExistingIdInsertsANewOne() throws Exception {
+        Book existing = repo.save(new Book(null, "Temp", "Bob"));
+        String json = """
+                {"id": %d, "title": "Client Chosen Id", "author": "Alice", "version": 7}
+                """.formatted(existing.getId());
+
+        mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", not(existing.getId().intValue())))
+                .andExpect(jsonPath("$.version", is(0)));
+        assertEquals("Temp", repo.findById(existing.getId()).orElseThrow().getTitle());
+        assertEquals(4, repo.count());
+    }
+
     @Test
     void testDeleteBook() throws Exception {
         Book book = repo.save(new Book(null, "Temp", "Bob"));
@@ -84,4 +120,143 @@ public class BookControllerIntegrationTest {
         mockMvc.perform(delete("/books/" + book.getId()))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void testListBooksWithCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/books").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andReturn();
+        BookPage first = objectMapper.readValue(result.getResponse().getContentAsString(), BookPage.class);
+        assertNotNull(first.nextCursor());
+
+        result = mockMvc.perform(get("/books").param("limit", "1").param("after", first.nextCursor()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andReturn();
+        BookPage second = objectMapper.readValue(result.getResponse().getContentAsString(), BookPage.class);
+
+        assertTrue(second.items().get(0).getId() > first.items().get(0).getId());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testListBooksWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/books").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testListBooksByAuthorAndTitlePrefix() throws Exception {
+        repo.save(new Book(null, "Spring Data JPA", "Jane"));
+
+        MvcResult result = mockMvc.perform(get("/books").param("author", "Jane").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title", is("Java 21 Basics")))
+                .andReturn();
+        BookPage first = objectMapper.readValue(result.getResponse().getContentAsString(), BookPage.class);
+        mockMvc.perform(get("/books").param("author", "Jane").param("limit", "1").param("after", first.nextCursor()))
+                .andExpect(jsonPath("$.items[0].title", is("Spring Data JPA")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        MvcResult byTitle = mockMvc.perform(get("/books").param("titlePrefix", "Spring").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title", is("Spring Boot in Action")))
+                .andReturn();
+        BookPage firstTitle = objectMapper.readValue(byTitle.getResponse().getContentAsString(), BookPage.class);
+        mockMvc.perform(get("/books").param("titlePrefix", "Spring").param("limit", "1")
+                        .param("after", firstTitle.nextCursor()))
+                .andExpect(jsonPath("$.items[0].title", is("Spring Data JPA")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/books").param("titlePrefix", "Java").param("after", firstTitle.nextCursor()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/books/count").param("author", "Jane"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+        mockMvc.perform(get("/books").param("author", "Jane").param("titlePrefix", "S"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testConditionalGetAnswersNotModified() throws Exception {
+        Book book = repo.findAll().get(0);
+        MvcResult first = mockMvc.perform(get("/books/{id}", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/books/{id}", book.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String listEtag = mockMvc.perform(get("/books").param("limit", "1"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/books").param("limit", "1").header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+
+        repo.save(new Book(null, "Changes the catalog", "Alice"));
+        mockMvc.perform(get("/books").param("limit", "1").header("If-None-Match", listEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(listEtag)));
+    }
+
+    @Test
+    void testExportBooksAsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("Spring Boot in Action"));
+    }
+
+    @Test
+    void testCreateBooksInBatch() throws Exception {
+        String json = """
+                [{"title": "Batch One", "author": "Alice"}, {"title": "Batch Two", "author": "Bob"}]
+                """;
+
+        mockMvc.perform(post("/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", notNullValue()));
+        assertEquals(4, repo.count());
+    }
+
+    @Test
+    void testDeleteBooksInBatch() throws Exception {
+        List<Long> ids = repo.findAll().stream().map(Book::getId).toList();
+
+        mockMvc.perform(delete("/books").param("ids", ids.get(0) + "," + ids.get(1)))
+                .andExpect(status().isNoContent());
+        assertEquals(0, repo.count());
+    }
+
+    @Test
+    void testSearchFindsBooksCreatedThroughTheApi() throws Exception {
+        mockMvc.perform(post("/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Searchable Spring\",\"author\":\"Alice\"},"
+                                + "{\"title\":\"Searchable Micronaut\",\"author\":\"Bob\"}]"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/books/search").param("q", "searchable spr").param("field", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Searchable Spring"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/books/search").param("q", "x").param("field", "isbn"))
+                .andExpect(status().isBadRequest());
+    }
 }
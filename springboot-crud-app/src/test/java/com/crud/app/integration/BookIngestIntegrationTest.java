@@ -0,0 +1,57 @@
+package com.crud.app.integration;
+
+import com.crud.app.entity.Book;
+import com.crud.app.ingest.IngestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"books.ingest.enabled=true", "books.ingest.log-path=target/book-ingest-it.log"})
+@AutoConfigureMockMvc
+public class BookIngestIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCreateIsQueuedAndCommittedInBackground() throws Exception {
+        MvcResult accepted = mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Book(null, "Written behind", "Alice"))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state", is("QUEUED")))
+                .andReturn();
+        IngestStatus status = objectMapper.readValue(accepted.getResponse().getContentAsString(), IngestStatus.class);
+        assertEquals("/books/ingest/" + status.trackingId(), accepted.getResponse().getHeader("Location"));
+
+        for (int i = 0; i < 100 && status.state() == IngestStatus.State.QUEUED; i++) {
+            Thread.sleep(50);
+            String body = mockMvc.perform(get("/books/ingest/" + status.trackingId()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readValue(body, IngestStatus.class);
+        }
+        assertEquals(IngestStatus.State.SAVED, status.state());
+        mockMvc.perform(get("/books/" + status.bookId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Written behind")));
+    }
+
+    @Test
+    void testUnknownTrackingIdIsNotFound() throws Exception {
+        mockMvc.perform(get("/books/ingest/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
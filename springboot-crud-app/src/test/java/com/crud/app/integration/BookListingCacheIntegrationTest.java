@@ -0,0 +1,82 @@
+package com.crud.app.integration;
+
+import com.crud.app.entity.Book;
+import com.crud.app.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "books.listing-cache-size=100")
+@AutoConfigureMockMvc
+public class BookListingCacheIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository repo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        repo.deleteAll();
+        for (int i = 0; i < 20; i++) {
+            repo.save(new Book(null, "Spring Boot in Action, volume " + i, "John"));
+        }
+    }
+
+    @Test
+    void testCachedListingIsSentGzippedToClientsThatAcceptIt() throws Exception {
+        MvcResult identity = mockMvc.perform(get("/books").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(jsonPath("$.items", hasSize(20)))
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(get("/books").param("limit", "20").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", identity.getResponse().getHeader("ETag")))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(identity.getResponse().getContentAsByteArray(), in.readAllBytes());
+        }
+        mockMvc.perform(get("/books").param("limit", "20").header("If-None-Match", identity.getResponse().getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testCachedListingIsReplacedAfterAWrite() throws Exception {
+        String etag = mockMvc.perform(get("/books").param("limit", "50"))
+                .andExpect(jsonPath("$.items", hasSize(20)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Book(null, "Not cached yet", "Alice"))))
+                .andExpect(status().isCreated());
+
+        MvcResult changed = mockMvc.perform(get("/books").param("limit", "50").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(21)))
+                .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.crud.app.integration;
+
+import com.crud.app.crac.BookWarmup;
+import com.crud.app.entity.Book;
+import com.crud.app.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookWarmupIntegrationTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookWarmup warmup;
+
+    @Autowired
+    private BookRepository repo;
+
+    @BeforeEach
+    void setup() {
+        repo.deleteAll();
+        repo.save(new Book(null, "Spring Boot in Action", "John"));
+    }
+
+    @Test
+    void testWarmUpRunsEveryRoundAndLeavesNoBooksBehind() {
+        int requests = warmup.warmUp(URI.create("http://localhost:" + port + "/books"), 3);
+
+        assertEquals(18, requests);
+        assertEquals(1, repo.count());
+    }
+}
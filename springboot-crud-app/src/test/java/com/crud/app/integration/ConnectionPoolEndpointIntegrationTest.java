@@ -0,0 +1,41 @@
+package com.crud.app.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles({"prod", "dev"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class ConnectionPoolEndpointIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPoolEndpointReportsTheProductionPool() throws Exception {
+        mockMvc.perform(get("/books")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/pool"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].maximumPoolSize", is(20)))
+                .andExpect(jsonPath("$[0].connectionTimeoutMillis", is(2000)))
+                .andExpect(jsonPath("$[0].leakDetectionThresholdMillis", is(10000)))
+                .andExpect(jsonPath("$[0].pending", is(0)))
+                .andExpect(jsonPath("$[0].acquire.count", greaterThan(0)))
+                .andExpect(jsonPath("$[0].acquire.buckets[0].leMillis", is(1.0)))
+                .andExpect(jsonPath("$[0].acquire.buckets.length()", is(11)));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")));
+    }
+}
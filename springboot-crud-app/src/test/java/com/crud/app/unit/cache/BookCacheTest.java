@@ -0,0 +1,92 @@
+package com.crud.app.unit.cache;
+
+import com.crud.app.cache.BookCache;
+import com.crud.app.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookCache Tests")
+class BookCacheTest {
+
+    private BookCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        var cacheManager = new CaffeineCacheManager(BookCache.NAME);
+        cacheManager.setCacheSpecification("recordStats");
+        cache = new BookCache(cacheManager);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should load a book once and serve it from the cache afterwards")
+    void testLoadIsCached() {
+        cache.get(1L, loader(new Book(1L, "Title", "Author")));
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Other", "Author")));
+
+        assertEquals(1, loads.get());
+        assertEquals("Title", book.orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that was in progress when the book was invalidated")
+    void testLoadRacingAnInvalidationIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Optional<Book>> stale = new AtomicReference<>();
+        Thread reader = Thread.ofPlatform().start(() -> stale.set(cache.get(1L, id -> {
+            loading.countDown();
+            await(release);
+            return Optional.of(new Book(1L, "Stale", "Author"));
+        })));
+
+        loading.await();
+        cache.invalidate(1L);
+        release.countDown();
+        reader.join();
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Fresh", "Author")));
+
+        assertEquals("Stale", stale.get().orElseThrow().getTitle());
+        assertEquals(1, loads.get());
+        assertEquals("Fresh", book.orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should cache a load that started after the invalidation")
+    void testLoadAfterInvalidationIsCached() {
+        cache.get(1L, loader(new Book(1L, "Title", "Author")));
+
+        cache.invalidate(1L);
+        cache.get(1L, loader(new Book(1L, "Title v2", "Author")));
+        Optional<Book> book = cache.get(1L, loader(new Book(1L, "Other", "Author")));
+
+        assertEquals(2, loads.get());
+        assertEquals("Title v2", book.orElseThrow().getTitle());
+    }
+
+    private Function<Long, Optional<Book>> loader(Book book) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.of(book);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.crud.app.unit.cache;
+
+import com.crud.app.cache.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> flights = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should run one load for concurrent callers of the same key and share its result")
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> results = new ConcurrentLinkedQueue<>();
+        Runnable lookup = () -> results.add(flights.run(1L, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "book 1";
+        }));
+
+        Thread leader = Thread.ofPlatform().start(lookup);
+        started.await();
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(Thread.ofPlatform().start(lookup));
+        }
+        awaitWaiting(followers);
+        release.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of("book 1"), results.stream().distinct().toList());
+        assertEquals(9, results.size());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should load again once the previous load has completed")
+    void testNothingIsKeptAfterTheLoad() {
+        assertEquals("book 1", flights.run(1L, this::load));
+        assertEquals("book 1", flights.run(1L, this::load));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not make different keys wait for each other")
+    void testKeysAreIndependent() {
+        String outer = flights.run(1L, () -> flights.run(2L, () -> "book 2") + " then book 1");
+
+        assertEquals("book 2 then book 1", outer);
+    }
+
+    @Test
+    @DisplayName("Should give every waiting caller the exception of the load")
+    void testFailureIsShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Runnable lookup = () -> {
+            try {
+                flights.run(1L, () -> {
+                    started.countDown();
+                    await(release);
+                    throw new IllegalStateException("database down");
+                });
+            } catch (IllegalStateException e) {
+                failures.add(e);
+            }
+        };
+
+        Thread leader = Thread.ofPlatform().start(lookup);
+        started.await();
+        Thread follower = Thread.ofPlatform().start(lookup);
+        awaitWaiting(List.of(follower));
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(2, failures.size());
+        failures.forEach(failure -> assertEquals("database down", failure.getMessage()));
+        assertEquals("book 1", flights.run(1L, this::load));
+    }
+
+    @Test
+    @DisplayName("Should start a new load after forget instead of joining the running one")
+    void testForgetStartsANewLoad() {
+        String result = flights.run(1L, () -> {
+            flights.forget(1L);
+            return "stale " + flights.run(1L, this::load);
+        });
+
+        assertEquals("stale book 1", result);
+        assertEquals(1, loads.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "book 1";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // a follower waits for the leader in join(), which parks it
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            if (System.nanoTime() > deadline) {
+                fail("Callers did not wait within 5 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
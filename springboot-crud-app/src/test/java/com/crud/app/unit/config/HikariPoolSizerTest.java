@@ -0,0 +1,39 @@
+package com.crud.app.unit.config;
+
+import com.crud.app.config.HikariPoolSizer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HikariPoolSizerTest {
+
+    @Test
+    void testSizesUnconfiguredPool() {
+        HikariDataSource dataSource = new HikariDataSource();
+
+        new HikariPoolSizer(new MockEnvironment()).postProcessAfterInitialization(dataSource, "dataSource");
+
+        assertEquals(HikariPoolSizer.poolSize(Runtime.getRuntime().availableProcessors()),
+                dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void testKeepsConfiguredPoolSize() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "7");
+
+        new HikariPoolSizer(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+        assertEquals(7, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void testPoolSizeFormula() {
+        assertEquals(3, HikariPoolSizer.poolSize(1));
+        assertEquals(17, HikariPoolSizer.poolSize(8));
+    }
+}
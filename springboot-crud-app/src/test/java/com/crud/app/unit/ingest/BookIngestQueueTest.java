@@ -0,0 +1,197 @@
+package com.crud.app.unit.ingest;
+
+import com.crud.app.config.BookProperties;
+import com.crud.app.entity.Book;
+import com.crud.app.ingest.BookIngestQueue;
+import com.crud.app.ingest.IngestStatus;
+import com.crud.app.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BookIngestQueue Tests")
+class BookIngestQueueTest {
+
+    @TempDir
+    Path dir;
+
+    private BookService service;
+    private BookProperties properties;
+    private BookProperties.Ingest config;
+    private BookIngestQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(BookService.class);
+        properties = new BookProperties();
+        config = properties.getIngest();
+        config.setLogPath(dir.resolve("ingest.log").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should commit queued books in batches and empty the log once they are saved")
+    void testSubmitCommitsInBackground() throws Exception {
+        when(service.saveAll(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0), 100));
+        queue = start();
+
+        IngestStatus first = queue.submit(new Book(null, "Title 1", "Author")).orElseThrow();
+        IngestStatus second = queue.submit(new Book(null, "Title 2", "Author")).orElseThrow();
+        assertEquals(IngestStatus.State.QUEUED, first.state());
+
+        await(() -> isSaved(second.trackingId()));
+        assertTrue(isSaved(first.trackingId()));
+        assertNotNull(queue.status(first.trackingId()).orElseThrow().bookId());
+        await(() -> logSize() == 0);
+        assertTrue(queue.status("unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should save a failed batch book by book and report the books that still fail")
+    void testFailedBatchIsSavedOneByOne() throws Exception {
+        when(service.saveAll(anyList())).thenThrow(new IllegalStateException("constraint violated"));
+        when(service.save(any())).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            if (book.getTitle().equals("Bad")) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return new Book(7L, book.getTitle(), book.getAuthor());
+        });
+        queue = start();
+
+        String good = queue.submit(new Book(null, "Good", "Author")).orElseThrow().trackingId();
+        String bad = queue.submit(new Book(null, "Bad", "Author")).orElseThrow().trackingId();
+
+        await(() -> queue.status(bad).orElseThrow().state() == IngestStatus.State.FAILED);
+        assertEquals(7L, queue.status(good).orElseThrow().bookId());
+        assertEquals("constraint violated", queue.status(bad).orElseThrow().error());
+    }
+
+    @Test
+    @DisplayName("Should retry a batch that failed because of the database until it commits")
+    void testTransientFailureIsRetried() throws Exception {
+        config.setRetryDelay(Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+        when(service.saveAll(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new TransientDataAccessResourceException("Connection refused");
+            }
+            return withIds(invocation.getArgument(0), 1);
+        });
+        queue = start();
+
+        String id = queue.submit(new Book(null, "Retried", "Author")).orElseThrow().trackingId();
+
+        await(() -> isSaved(id));
+        assertEquals(3, attempts.get());
+        verify(service, never()).save(any());
+        await(() -> logSize() == 0);
+    }
+
+    @Test
+    @DisplayName("Should answer empty when the queue is full")
+    void testFullQueueTurnsBooksAway() throws Exception {
+        config.setCapacity(2);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.saveAll(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return withIds(invocation.getArgument(0), 1);
+        });
+        queue = start();
+
+        assertTrue(queue.submit(new Book(null, "Being committed", "Author")).isPresent());
+        committing.await();
+        assertTrue(queue.submit(new Book(null, "Queued", "Author")).isPresent());
+        assertTrue(queue.submit(new Book(null, "Turned away", "Author")).isEmpty());
+        release.countDown();
+
+        await(() -> queue.queued() == 0);
+        assertTrue(queue.submit(new Book(null, "Queued again", "Author")).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should commit at startup the books that the log holds from a previous run")
+    void testReplaysUncommittedBooks() throws Exception {
+        Files.writeString(dir.resolve("ingest.log"), """
+                A t1 {"title":"Left behind","author":"Author"}
+                A t2 {"title":"Committed","author":"Author"}
+                C t2
+                A t3 {"title":"Cut sh""");
+        List<List<Book>> batches = new ArrayList<>();
+        when(service.saveAll(anyList())).thenAnswer(invocation -> {
+            batches.add(invocation.getArgument(0));
+            return withIds(invocation.getArgument(0), 1);
+        });
+
+        queue = start();
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of("Left behind"), batches.get(0).stream().map(Book::getTitle).toList());
+        assertTrue(isSaved("t1"));
+        await(() -> logSize() == 0);
+    }
+
+    private BookIngestQueue start() {
+        BookIngestQueue started = new BookIngestQueue(service, new ObjectMapper(), properties);
+        started.start();
+        return started;
+    }
+
+    private boolean isSaved(String trackingId) {
+        return queue.status(trackingId).map(status -> status.state() == IngestStatus.State.SAVED).orElse(false);
+    }
+
+    private static List<Book> withIds(List<Book> books, long firstId) {
+        List<Book> saved = new ArrayList<>();
+        for (Book book : books) {
+            saved.add(new Book(firstId++, book.getTitle(), book.getAuthor()));
+        }
+        return saved;
+    }
+
+    // every segment of the log
+    private long logSize() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.crud.app.unit.search;
+
+import com.crud.app.entity.Book;
+import com.crud.app.search.BookSearchIndex;
+import com.crud.app.search.SearchField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookSearchIndex Tests")
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.put(new Book(1L, "Micronaut in Action", "John Doe"));
+        index.put(new Book(2L, "Reactive Java", "Jane Doe"));
+        index.put(new Book(3L, "Java Concurrency in Practice", "Brian Goetz"));
+        index.put(new Book(4L, "JavaScript: The Good Parts", "Douglas Crockford"));
+    }
+
+    @Test
+    @DisplayName("Should split on non-alphanumerics and fold case")
+    void testTokenize() {
+        assertEquals(List.of("javascript", "the", "good", "parts"), BookSearchIndex.tokenize("JavaScript: The Good-Parts"));
+        assertEquals(List.of(), BookSearchIndex.tokenize(" -- "));
+        assertEquals(List.of(), BookSearchIndex.tokenize(null));
+    }
+
+    @Test
+    @DisplayName("Should rank exact matches above prefix matches")
+    void testExactBeforePrefix() {
+        assertEquals(List.of(2L, 3L, 4L), ids(index.search("java", SearchField.TITLE, 10)));
+    }
+
+    @Test
+    @DisplayName("Should require every query token to match")
+    void testAllTokensMustMatch() {
+        assertEquals(List.of(3L), ids(index.search("java pract", null, 10)));
+        assertEquals(List.of(), ids(index.search("java micronaut", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should search only the requested field")
+    void testFieldRestriction() {
+        assertEquals(List.of(1L, 2L), ids(index.search("doe", null, 10)));
+        assertEquals(List.of(), ids(index.search("doe", SearchField.TITLE, 10)));
+    }
+
+    @Test
+    @DisplayName("Should match every term a prefix covers, however many there are")
+    void testPrefixMatchesManyTerms() {
+        LongStream.range(100, 1100).forEach(id -> index.put(new Book(id, "Volume" + id, "Nobody")));
+
+        assertEquals(1000, index.search("volume", SearchField.TITLE, 2000).size());
+        assertEquals(List.of(1099L), ids(index.search("volume1099", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should keep only the top k results")
+    void testTopK() {
+        assertEquals(List.of(2L, 3L), ids(index.search("java", null, 2)));
+    }
+
+    @Test
+    @DisplayName("Should replace updated books and drop deleted ones")
+    void testUpdateAndRemove() {
+        index.put(new Book(2L, "Reactive Kotlin", "Jane Doe"));
+        index.remove(3L);
+
+        assertEquals(List.of(4L), ids(index.search("java", null, 10)));
+        assertEquals("Reactive Kotlin", index.search("kotlin", null, 10).get(0).getTitle());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild from batches in order")
+    void testRebuild() {
+        index.rebuild(Stream.of(
+                List.of(new Book(10L, "Java Basics", "Ann"), new Book(11L, "Kotlin Basics", "Bob")),
+                List.of(new Book(12L, "Java Streams", "Cid"))));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(10L, 12L), ids(index.search("java", null, 10)));
+        assertEquals(List.of(), ids(index.search("micronaut", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should keep answering correctly after compacting deleted documents")
+    void testCompaction() {
+        LongStream.range(100, 3100).forEach(id -> index.put(new Book(id, "Filler " + id, "Nobody")));
+        LongStream.range(100, 3100).forEach(index::remove);
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(2L, 3L, 4L), ids(index.search("java", null, 10)));
+        assertEquals(List.of(), ids(index.search("filler", null, 10)));
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).toList();
+    }
+}
@@ -1,26 +1,54 @@
 package com.crud.app.unit.service;
 
+import com.crud.app.cache.BookCache;
+import com.crud.app.cache.BookListingCache;
+import com.crud.app.cache.SerializedPage;
+import com.crud.app.config.BookProperties;
+import com.crud.app.dto.BookCursor;
+import com.crud.app.dto.BookPage;
+import com.crud.app.dto.CatalogVersion;
+import com.crud.app.dto.TitleCursor;
 import com.crud.app.entity.Book;
 import com.crud.app.repository.BookRepository;
+import com.crud.app.search.BookSearchIndex;
+import com.crud.app.search.SearchField;
 import com.crud.app.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class BookServiceTest {
     private BookRepository repo;
+    private BookCache cache;
+    private BookSearchIndex searchIndex;
+    private BookListingCache listingCache;
     private BookService service;
 
     @BeforeEach
     void setUp() {
         repo = mock(BookRepository.class);
-        service = new BookService(repo);
+        var cacheManager = new CaffeineCacheManager(BookCache.NAME);
+        cacheManager.setCacheSpecification("recordStats");
+        cache = new BookCache(cacheManager);
+        searchIndex = new BookSearchIndex();
+        var listingProperties = new BookProperties();
+        listingProperties.setListingCacheSize(10);
+        listingCache = new BookListingCache(new ObjectMapper().findAndRegisterModules(), listingProperties);
+        service = new BookService(repo, new BookProperties(), cache, searchIndex, listingCache);
     }
 
     @Test
@@ -67,6 +95,32 @@ public class BookServiceTest {
         verify(repo, times(1)).save(book);
     }
 
+    @Test
+    void testSaveWithExistingIdUpdatesTheStoredBook() {
+        var stored = new Book(10L, "Domain-Driven Design", "Eric Evans");
+        stored.setVersion(3L);
+        when(repo.findById(10L)).thenReturn(Optional.of(stored));
+        when(repo.save(stored)).thenReturn(stored);
+
+        var result = service.save(new Book(10L, "Domain-Driven Design Distilled", "Vaughn Vernon"));
+
+        assertSame(stored, result);
+        assertEquals("Domain-Driven Design Distilled", result.getTitle());
+        assertEquals("Vaughn Vernon", result.getAuthor());
+        assertEquals(3L, result.getVersion());
+    }
+
+    @Test
+    void testSaveWithUnknownIdInsertsANewBook() {
+        when(repo.findById(99L)).thenReturn(Optional.empty());
+        when(repo.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var result = service.save(new Book(99L, "Refactoring", "Martin Fowler"));
+
+        assertNull(result.getId());
+        assertEquals("Refactoring", result.getTitle());
+    }
+
     @Test
     void testDelete() {
         long id = 5L;
@@ -79,4 +133,265 @@ public class BookServiceTest {
         verify(repo, times(1)).deleteById(captor.capture());
         assertEquals(id, captor.getValue());
     }
+
+    @Test
+    void testFindPageReturnsNextCursorWhenMoreRowsExist() {
+        var books = List.of(
+                new Book(1L, "Spring Boot in Action", "Craig Walls"),
+                new Book(2L, "Effective Java", "Joshua Bloch"),
+                new Book(3L, "Clean Code", "Robert C. Martin")
+        );
+        when(repo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(books);
+
+        var page = service.findPage(0L, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(2L, BookCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testFindPageOnLastPageHasNoCursor() {
+        var book = new Book(5L, "Clean Code", "Robert C. Martin");
+        when(repo.findByIdGreaterThanOrderByIdAsc(4L, Limit.of(3))).thenReturn(List.of(book));
+
+        var page = service.findPage(4L, 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testFindPageClampsLimitToMaxPageSize() {
+        int max = new BookProperties().getMaxPageSize();
+        when(repo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(max + 1))).thenReturn(List.of());
+
+        service.findPage(0L, 10_000);
+
+        verify(repo).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(max + 1));
+    }
+
+    @Test
+    void testFindByAuthorPagesWithinTheAuthor() {
+        var b1 = new Book(3L, "Effective Java", "Joshua Bloch");
+        var b2 = new Book(7L, "Java Puzzlers", "Joshua Bloch");
+        when(repo.findByAuthorAndIdGreaterThanOrderByIdAsc("Joshua Bloch", 0L, Limit.of(2))).thenReturn(List.of(b1, b2));
+
+        var page = service.findByAuthor("Joshua Bloch", 0L, 1);
+
+        assertEquals(List.of(b1), page.items());
+        assertEquals(3L, BookCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testFindByTitlePrefixAndCountByAuthor() {
+        var b1 = new Book(9L, "Clean Architecture", "Robert C. Martin");
+        var b2 = new Book(4L, "Clean Code", "Robert C. Martin");
+        when(repo.findByTitleStartingWithOrderByTitleAscIdAsc("Clean", Limit.of(2))).thenReturn(List.of(b1, b2));
+        when(repo.countByAuthor("Robert C. Martin")).thenReturn(4L);
+
+        var page = service.findByTitlePrefix("Clean", null, 1);
+
+        assertEquals(List.of(b1), page.items());
+        assertEquals(new TitleCursor("Clean Architecture", 9L), TitleCursor.decode(page.nextCursor(), "Clean"));
+        assertEquals(4L, service.countByAuthor("Robert C. Martin"));
+    }
+
+    @Test
+    void testFindByTitlePrefixAfterCursorContinuesWithTheNextTitles() {
+        var sameTitle = new Book(12L, "Clean Architecture", "Someone Else");
+        var next = new Book(4L, "Clean Code", "Robert C. Martin");
+        when(repo.findByTitleAndIdGreaterThanOrderByIdAsc("Clean Architecture", 9L, Limit.of(3)))
+                .thenReturn(List.of(sameTitle));
+        when(repo.findByTitleStartingWithAndTitleGreaterThanOrderByTitleAscIdAsc("Clean", "Clean Architecture",
+                Limit.of(2))).thenReturn(List.of(next));
+
+        var page = service.findByTitlePrefix("Clean", new TitleCursor("Clean Architecture", 9L), 2);
+
+        assertEquals(List.of(sameTitle, next), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testCatalogVersionReadsCountAndLastUpdate() {
+        Instant updated = Instant.parse("2024-05-01T10:15:30Z");
+        when(repo.count()).thenReturn(3L);
+        when(repo.findMaxUpdatedAt()).thenReturn(Optional.of(updated));
+
+        assertEquals(new CatalogVersion(3, updated), service.catalogVersion());
+        verify(repo, never()).findAll();
+    }
+
+    @Test
+    void testStreamAllReadsInKeysetBatches() {
+        var properties = new BookProperties();
+        properties.setExportFetchSize(2);
+        service = new BookService(repo, properties, cache, searchIndex, listingCache);
+        var b1 = new Book(1L, "Spring Boot in Action", "Craig Walls");
+        var b2 = new Book(2L, "Effective Java", "Joshua Bloch");
+        var b3 = new Book(3L, "Clean Code", "Robert C. Martin");
+        when(repo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(b1, b2));
+        when(repo.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(List.of(b3));
+
+        var result = service.streamAll().toList();
+
+        assertEquals(List.of(b1, b2, b3), result);
+        verify(repo, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testSaveAll() {
+        var books = List.of(new Book("Refactoring", "Martin Fowler"), new Book("Patterns", "GoF"));
+        when(repo.saveAll(books)).thenReturn(books);
+
+        var result = service.saveAll(books);
+
+        assertEquals(2, result.size());
+        verify(repo, times(1)).saveAll(books);
+    }
+
+    @Test
+    void testDeleteAll() {
+        service.deleteAll(List.of(1L, 2L));
+
+        verify(repo, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void testSaveAllRejectsOversizedBatch() {
+        var properties = new BookProperties();
+        properties.setMaxBatchSize(1);
+        service = new BookService(repo, properties, cache, searchIndex, listingCache);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.saveAll(List.of(new Book("Refactoring", "Martin Fowler"), new Book("Patterns", "GoF"))));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void testFindByIdIsServedFromCacheOnSecondCall() {
+        when(repo.findById(1L)).thenReturn(Optional.of(new Book(1L, "Clean Code", "Robert C. Martin")));
+
+        service.findById(1L);
+        var result = service.findById(1L);
+
+        assertEquals("Clean Code", result.orElseThrow().getTitle());
+        verify(repo, times(1)).findById(1L);
+        assertEquals(1, service.cacheStats().hitCount());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneQuery() throws Exception {
+        var querying = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(repo.findById(1L)).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return Optional.of(new Book(1L, "Clean Code", "Robert C. Martin"));
+        });
+        var found = new ConcurrentLinkedQueue<Book>();
+        Runnable lookup = () -> found.add(service.findById(1L).orElseThrow());
+
+        var threads = new ArrayList<>(List.of(Thread.ofPlatform().start(lookup)));
+        querying.await();
+        for (int i = 0; i < 4; i++) {
+            threads.add(Thread.ofPlatform().start(lookup));
+        }
+        // the others wait for the first query, parked in SingleFlight
+        while (!threads.subList(1, threads.size()).stream().allMatch(t -> t.getState() == Thread.State.WAITING)) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        verify(repo, times(1)).findById(1L);
+        assertEquals(5, found.size());
+        // each caller has its own copy
+        assertEquals(5, found.stream().map(System::identityHashCode).distinct().count());
+    }
+
+    @Test
+    void testCachedBookCannotBeMutatedByCallers() {
+        when(repo.findById(1L)).thenReturn(Optional.of(new Book(1L, "Clean Code", "Robert C. Martin")));
+
+        service.findById(1L).orElseThrow().setTitle("Changed");
+
+        assertEquals("Clean Code", service.findById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void testSaveAndDeleteInvalidateCache() {
+        var book = new Book(1L, "Clean Code", "Robert C. Martin");
+        when(repo.findById(1L)).thenReturn(Optional.of(book));
+        when(repo.save(book)).thenReturn(book);
+
+        service.findById(1L);
+        service.save(book);
+        service.findById(1L);
+        service.delete(1L);
+        service.findById(1L);
+
+        // three lookups that missed the cache, plus the one save makes to merge the book
+        verify(repo, times(4)).findById(1L);
+    }
+
+    @Test
+    void testWritesRetireCachedListings() {
+        var book = new Book(1L, "Clean Code", "Robert C. Martin");
+        when(repo.findById(1L)).thenReturn(Optional.of(book));
+        when(repo.save(book)).thenReturn(book);
+        var query = new BookListingCache.Query(null, 20, null, null);
+
+        SerializedPage first = listingCache.get(query, () -> "\"1-0\"", () -> List.of(book));
+        assertSame(first, listingCache.get(query, () -> "\"unused\"", List::of));
+
+        service.save(book);
+        SerializedPage afterSave = listingCache.get(query, () -> "\"1-1\"", () -> List.of(book));
+        assertNotSame(first, afterSave);
+        assertEquals("\"1-1\"", afterSave.etag());
+
+        service.delete(1L);
+        assertEquals("[]", new String(listingCache.get(query, () -> "\"0-0\"", List::of).json()));
+        assertNull(listingCache.get(query, () -> "\"0-0\"", List::of).gzip());
+    }
+
+    @Test
+    void testSearchPagesThroughRankedResults() {
+        searchIndex.rebuild(Stream.of(List.of(
+                new Book(1L, "Java Basics", "Ann"),
+                new Book(2L, "Java Streams", "Bob"),
+                new Book(3L, "Kotlin Basics", "Cid"))));
+
+        BookPage first = service.search("basics", SearchField.TITLE, 0, 1);
+        BookPage second = service.search("basics", SearchField.TITLE, BookCursor.decode(first.nextCursor()), 1);
+
+        assertEquals(List.of(1L), first.items().stream().map(Book::getId).toList());
+        assertEquals(List.of(3L), second.items().stream().map(Book::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testSearchOffsetPastTheResults() {
+        searchIndex.rebuild(Stream.of(List.of(new Book(1L, "Java Basics", "Ann"))));
+        var properties = new BookProperties();
+        properties.setSearchMaxResults(100);
+        service = new BookService(repo, properties, cache, searchIndex, listingCache);
+
+        assertTrue(service.search("basics", null, 50, 10).items().isEmpty());
+        assertTrue(service.search("basics", null, 100, 10).items().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.search("basics", null, 101, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.search("basics", null, Long.MAX_VALUE, 10));
+    }
+
+    @Test
+    void testWritesKeepSearchIndexInSync() {
+        when(repo.save(any(Book.class))).thenReturn(new Book(1L, "Spring Guide", "Alex"));
+
+        service.save(new Book("Spring Guide", "Alex"));
+        assertEquals(1, service.search("spri", null, 0, null).items().size());
+
+        service.delete(1L);
+        assertTrue(service.search("spri", null, 0, null).items().isEmpty());
+    }
 }